@@ -1,34 +0,0 @@
-// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
-
-package strampáil;
-
-// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
-
-/**
- * Contains many constants referred to throughout the package.
- *
- * @author Mark David Pokorny
- * @version Dé Domhnaigh, 24ú Aibreán 2016
- * @since Dé hAoine, 22ú Aibreán 2016
- */
-public interface Constants
-{
-
-// ----------------------------------------- Constants Interface ---------------
-
-  /** Show no messages at all */
-  public static final int NONE = 4;
-  /** Show only error level messages */
-  public static final int ERROR = 3;
-  /** Show error and warning level messages */
-  public static final int WARNING = 2;
-  /** Show error, warning and info level messages */
-  public static final int INFO = 1;
-  /** Show all messages */
-  public static final int DEBUG = 0;
-
-// ----------------------------------------- Constants Interface ---------------
-
-} // End ‘Constants’ Interface
-
-// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
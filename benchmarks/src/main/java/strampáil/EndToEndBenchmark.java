@@ -0,0 +1,155 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * Measures messages sent through a {@link StompBroker} and back, over a
+ * real TCP connection: how many a second get round when sent a batch at a
+ * time, and how long a single message takes to get round (sampled, for its
+ * percentiles).
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark implements Constants
+{
+
+// ------------------------------------- EndToEndBenchmark Class ---------------
+
+  /** How many messages are sent at a time for throughput. */
+  static final int BATCH = 100;
+
+// ------------------------------------- EndToEndBenchmark Class ---------------
+
+  /** Which transport: {@link Constants#BLOCKING_TRANSPORT} or
+   * {@link Constants#NIO_TRANSPORT}. */
+  @Param({"BLOCKING", "NIO"})
+  public String transport;
+
+  /** How many characters each message has. */
+  @Param({"64", "4096"})
+  public int bodySize;
+
+// ------------------------------------- EndToEndBenchmark Class ---------------
+
+  private StompBroker broker;
+  private ClientInterface client;
+  private AtomicLong received;
+  private String body;
+  private long sent;
+
+// ------------------------------------- EndToEndBenchmark Class ---------------
+
+  @Setup
+  public void setUp() throws IOException
+  {
+
+    char[] characters = new char[bodySize];
+    Arrays.fill(characters, 'x');
+    body = new String(characters);
+    received = new AtomicLong(0);
+    sent = 0;
+
+    broker = new StompBroker(0);
+    client = new ClientInterface("127.0.0.1", broker.getPort(), NONE, null);
+    client.setTransportMode(
+      transport.equals("NIO") ? NIO_TRANSPORT : BLOCKING_TRANSPORT);
+
+    if (!client.handshake() || !client.connect("localhost"))
+      throw new IOException("Unable to connect to the broker.");
+
+    client.subscribe("/queue/bench", "bench", new MessageListener()
+    {
+      public void messageReceived(Frame frame)
+      {
+        received.incrementAndGet();
+      } // End ‘messageReceived(Frame)’ Method
+    }, true);
+
+  } // End ‘setUp()’ Method
+
+// ------------------------------------- EndToEndBenchmark Class ---------------
+
+  @TearDown
+  public void tearDown()
+  {
+
+    client.disconnect();
+    client.close();
+    broker.close();
+
+  } // End ‘tearDown()’ Method
+
+// ------------------------------------- EndToEndBenchmark Class ---------------
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(BATCH)
+  public void throughput()
+  {
+
+    for (int message = 0; message < BATCH; message++)
+      client.send(body, false);
+
+    sent += BATCH;
+    awaitReceived();
+
+  } // End ‘throughput()’ Method
+
+// ------------------------------------- EndToEndBenchmark Class ---------------
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public void roundTrip()
+  {
+
+    client.send(body, false);
+
+    sent++;
+    awaitReceived();
+
+  } // End ‘roundTrip()’ Method
+
+// ------------------------------------- EndToEndBenchmark Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ------------------------------------- EndToEndBenchmark Class ---------------
+
+  private void awaitReceived()
+  {
+    while (received.get() < sent)
+      Thread.onSpinWait();
+  } // End ‘awaitReceived()’ Method
+
+// ------------------------------------- EndToEndBenchmark Class ---------------
+
+} // End ‘EndToEndBenchmark’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,139 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * Measures messages passed on by a {@link StompBroker} to every one of a
+ * number of subscribers, each a client of its own: how many a second are
+ * sent and seen by them all. Since each message is encoded only once
+ * however many it goes to, the time (and, with <code>-prof gc</code>, the
+ * garbage) per delivery ought to hold steady as subscribers are added.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FanOutBenchmark implements Constants
+{
+
+// --------------------------------------- FanOutBenchmark Class ---------------
+
+  /** How many messages are sent at a time. */
+  static final int BATCH = 100;
+
+// --------------------------------------- FanOutBenchmark Class ---------------
+
+  /** How many clients subscribe, the one sending among them. */
+  @Param({"1", "10", "100"})
+  public int subscribers;
+
+  /** How many characters each message has. */
+  @Param({"64", "4096"})
+  public int bodySize;
+
+// --------------------------------------- FanOutBenchmark Class ---------------
+
+  private StompBroker broker;
+  private ClientInterface[] clients;
+  private AtomicLong received;
+  private String body;
+  private long expected;
+
+// --------------------------------------- FanOutBenchmark Class ---------------
+
+  @Setup
+  public void setUp() throws IOException
+  {
+
+    char[] characters = new char[bodySize];
+    Arrays.fill(characters, 'x');
+    body = new String(characters);
+    received = new AtomicLong(0);
+    expected = 0;
+
+    MessageListener listener = new MessageListener()
+    {
+      public void messageReceived(Frame frame)
+      {
+        received.incrementAndGet();
+      } // End ‘messageReceived(Frame)’ Method
+    };
+
+    broker = new StompBroker(0);
+    clients = new ClientInterface[subscribers];
+    for (int index = 0; index < clients.length; index++)
+    {
+      clients[index] =
+        new ClientInterface("127.0.0.1", broker.getPort(), NONE, null);
+      clients[index].setTransportMode(NIO_TRANSPORT);
+
+      if (!clients[index].handshake() || !clients[index].connect("localhost"))
+        throw new IOException("Unable to connect to the broker.");
+
+      clients[index].subscribe("/topic/bench", "bench", listener, true);
+    } // End for
+
+  } // End ‘setUp()’ Method
+
+// --------------------------------------- FanOutBenchmark Class ---------------
+
+  @TearDown
+  public void tearDown()
+  {
+
+    for (ClientInterface client : clients)
+    {
+      client.disconnect();
+      client.close();
+    } // End for
+
+    broker.close();
+
+  } // End ‘tearDown()’ Method
+
+// --------------------------------------- FanOutBenchmark Class ---------------
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(BATCH)
+  public void throughput()
+  {
+
+    for (int message = 0; message < BATCH; message++)
+      clients[0].send(body, false);
+
+    expected += (long) BATCH * subscribers;
+    while (received.get() < expected)
+      Thread.onSpinWait();
+
+  } // End ‘throughput()’ Method
+
+// --------------------------------------- FanOutBenchmark Class ---------------
+
+} // End ‘FanOutBenchmark’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,109 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * Measures how fast <code>SEND</code> and <code>SUBSCRIBE</code> frames are
+ * encoded, as {@link ClientInterface} does before handing them to the
+ * transport. Each encoded frame goes back to the {@link BufferPool}, as it
+ * would once written.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameEncodingBenchmark implements Constants
+{
+
+// -------------------------------- FrameEncodingBenchmark Class ---------------
+
+  /** How many characters each <code>SEND</code> body has. */
+  @Param({"16", "1024", "65536"})
+  public int bodySize;
+
+  /** Whether the destination needs escaping (it has a colon in it). */
+  @Param({"false", "true"})
+  public boolean escaped;
+
+// -------------------------------- FrameEncodingBenchmark Class ---------------
+
+  private String body, destination;
+
+// -------------------------------- FrameEncodingBenchmark Class ---------------
+
+  @Setup
+  public void setUp()
+  {
+
+    char[] characters = new char[bodySize];
+    Arrays.fill(characters, 'x');
+    body = new String(characters);
+    destination = escaped ? "/queue/bench:1" : "/queue/bench";
+
+  } // End ‘setUp()’ Method
+
+// -------------------------------- FrameEncodingBenchmark Class ---------------
+
+  @Benchmark
+  public void send(Blackhole blackhole)
+  {
+
+    ByteBuffer frame = FrameEncoder.send(destination, body, null);
+    blackhole.consume(frame.remaining());
+    BufferPool.release(frame);
+
+  } // End ‘send(Blackhole)’ Method
+
+// -------------------------------- FrameEncodingBenchmark Class ---------------
+
+  @Benchmark
+  public void sendWithReceipt(Blackhole blackhole)
+  {
+
+    ByteBuffer frame = FrameEncoder.send(destination, body, "send-1");
+    blackhole.consume(frame.remaining());
+    BufferPool.release(frame);
+
+  } // End ‘sendWithReceipt(Blackhole)’ Method
+
+// -------------------------------- FrameEncodingBenchmark Class ---------------
+
+  @Benchmark
+  public void subscribe(Blackhole blackhole)
+  {
+
+    ByteBuffer frame =
+      FrameEncoder.subscribe("subscription-1", destination, CLIENT_ACK, null);
+    blackhole.consume(frame.remaining());
+    BufferPool.release(frame);
+
+  } // End ‘subscribe(Blackhole)’ Method
+
+// -------------------------------- FrameEncodingBenchmark Class ---------------
+
+} // End ‘FrameEncodingBenchmark’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,151 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * Measures how fast a {@link ClientReceiver} turns bytes from the server
+ * into <code>MESSAGE</code> frames in the retrieval system, with either
+ * decoder. Each invocation runs a receiver over a block of frames held in
+ * memory, until it reaches the end of the block as though the server had
+ * closed the connection, and then drains the retrieval system.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(FrameParsingBenchmark.FRAMES)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameParsingBenchmark implements Constants
+{
+
+// --------------------------------- FrameParsingBenchmark Class ---------------
+
+  /** How many frames each invocation parses. */
+  static final int FRAMES = 1000;
+
+// --------------------------------- FrameParsingBenchmark Class ---------------
+
+  /** How many headers each frame has (<code>content-length</code> aside). */
+  @Param({"3", "8", "32"})
+  public int headers;
+
+  /** How many bytes each body has. */
+  @Param({"0", "256", "16384"})
+  public int bodySize;
+
+  /** Whether frames give a <code>content-length</code>. */
+  @Param({"true", "false"})
+  public boolean contentLength;
+
+  /** Which decoder: {@link Constants#BUFFERED_DECODER} or
+   * {@link Constants#STREAMED_DECODER}. */
+  @Param({"BUFFERED", "STREAMED"})
+  public String decoder;
+
+// --------------------------------- FrameParsingBenchmark Class ---------------
+
+  private byte[] wire;
+  private int decoderMode;
+  private ClientInterface client;
+  private ArrayList<Frame> received;
+
+// --------------------------------- FrameParsingBenchmark Class ---------------
+
+  @Setup
+  public void setUp()
+  {
+
+    wire = encodeFrames(FRAMES, headers, bodySize, contentLength);
+    decoderMode =
+      decoder.equals("BUFFERED") ? BUFFERED_DECODER : STREAMED_DECODER;
+    client = new ClientInterface("localhost", 0, NONE, null);
+    received = new ArrayList<Frame>(FRAMES);
+
+  } // End ‘setUp()’ Method
+
+// --------------------------------- FrameParsingBenchmark Class ---------------
+
+  @Benchmark
+  public void parse(Blackhole blackhole)
+  {
+
+    new ClientReceiver(
+      new ByteArrayInputStream(wire), client, decoderMode).run();
+
+    client.retrieveFrames(received, FRAMES);
+    for (Frame frame : received)
+      blackhole.consume(frame.getHeader("message-id"));
+    received.clear();
+
+  } // End ‘parse(Blackhole)’ Method
+
+// --------------------------------- FrameParsingBenchmark Class ---------------
+
+  /**
+   * Encodes a block of <code>MESSAGE</code> frames, as a server would send
+   * them.
+   *
+   * @param headers How many headers each frame has, beyond any
+   * <code>content-length</code> (at least three).
+   */
+  private static byte[] encodeFrames(int frames, int headers, int bodySize,
+    boolean contentLength)
+  {
+
+    byte[] body = new byte[bodySize];
+    Arrays.fill(body, (byte) 'x');
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int frame = 0; frame < frames; frame++)
+    {
+      StringBuilder head = new StringBuilder("MESSAGE\n");
+      head.append("subscription:bench\n");
+      head.append("message-id:").append(frame).append('\n');
+      head.append("destination:/queue/bench\n");
+      for (int header = 3; header < headers; header++)
+        head.append("x-header-").append(header).append(":value-")
+          .append(header).append('\n');
+      if (contentLength)
+        head.append("content-length:").append(bodySize).append('\n');
+      head.append('\n');
+
+      out.writeBytes(head.toString().getBytes(StandardCharsets.UTF_8));
+      out.writeBytes(body);
+      out.write(0);
+    } // End for
+
+    return out.toByteArray();
+
+  } // End ‘encodeFrames(int, int, int, boolean)’ Method
+
+// --------------------------------- FrameParsingBenchmark Class ---------------
+
+} // End ‘FrameParsingBenchmark’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
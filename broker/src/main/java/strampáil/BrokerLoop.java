@@ -0,0 +1,268 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>BrokerLoop</code> is a single thread driving a {@link Selector}
+ * on behalf of some of a {@link StompBroker}'s connections, much as an
+ * <code>EventLoop</code> does for clients. Frames to be written that arise
+ * while the loop handles what it has read (to any connection, on any loop)
+ * are only queued at first; once every ready connection has been handled,
+ * each connection written to is flushed with one gathering write. A burst of
+ * <code>SEND</code> frames thus costs each subscriber one system call, not
+ * one per message.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+class BrokerLoop extends Thread
+{
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  private Selector selector;
+  private ConcurrentLinkedQueue<Runnable> tasks;
+  private ArrayList<BrokerSession> written; // Only for this loop's thread.
+  private volatile boolean running;
+  private Log log;
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  /**
+   * @param log The broker's log.
+   * @throws IOException If a selector cannot be opened.
+   */
+  BrokerLoop(int index, Log log) throws IOException
+  {
+
+    super("strampáil-broker-loop-" + index);
+    setDaemon(true);
+    this.log = log;
+
+    selector = Selector.open();
+    tasks = new ConcurrentLinkedQueue<Runnable>();
+    written = new ArrayList<BrokerSession>();
+    running = true;
+
+  } // End ‘BrokerLoop(int, Log)’ Constructor
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  /**
+   * @return The loop the calling thread is (<code>null</code> if it is not
+   * a loop).
+   */
+  static BrokerLoop current()
+  {
+    Thread thread = Thread.currentThread();
+    return thread instanceof BrokerLoop ? (BrokerLoop) thread : null;
+  } // End ‘current()’ Method
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  /**
+   * Runs a task on this loop's thread, at the start of its next pass.
+   *
+   * @param task The task to be run.
+   */
+  void execute(Runnable task)
+  {
+    tasks.add(task);
+    selector.wakeup();
+  } // End ‘execute(Runnable)’ Method
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  /**
+   * Registers a newly accepted connection with this loop for reading.
+   *
+   * @param session The connection to register.
+   */
+  void register(final BrokerSession session)
+  {
+
+    execute(new Runnable()
+    {
+      public void run()
+      {
+        try
+        {
+          session.registered(session.channel().register(
+            selector, SelectionKey.OP_READ, session));
+        } // End try
+
+        catch (IOException ioe)
+        {
+          log.printError("Unable to register connection with " +
+            getName() + ".");
+          session.close();
+        } // End ‘IOException’ catch
+      } // End ‘run()’ Method
+    });
+
+  } // End ‘register(BrokerSession)’ Method
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  /**
+   * Notes that a connection has frames queued, to be flushed at the end of
+   * this pass. Must be called on this loop's thread.
+   *
+   * @param session The connection written to.
+   */
+  void written(BrokerSession session)
+  {
+    written.add(session);
+  } // End ‘written(BrokerSession)’ Method
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  /**
+   * @return Whether the calling thread is this loop.
+   */
+  boolean inLoop()
+  {
+    return Thread.currentThread() == this;
+  } // End ‘inLoop()’ Method
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  /**
+   * Closes every connection on this loop, and then the loop itself.
+   */
+  void shutDown()
+  {
+    running = false;
+    selector.wakeup();
+  } // End ‘shutDown()’ Method
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  public void run()
+  {
+
+    log.printDebug(getName() + " activated!");
+
+    while (running)
+    {
+      try
+      {
+        selector.select();
+      } // End try
+
+      catch (IOException ioe)
+      {
+        log.printError(getName() + " unable to select: " + ioe);
+        continue;
+      } // End ‘IOException’ catch
+
+      Runnable task = tasks.poll();
+      while (task != null)
+      {
+        try
+        {
+          task.run();
+        } // End try
+
+        catch (RuntimeException re)
+        {
+          log.printError("Task failed on " + getName() + ": " + re);
+        } // End ‘RuntimeException’ catch
+
+        task = tasks.poll();
+      } // End while
+
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while (keys.hasNext())
+      {
+        SelectionKey key = keys.next();
+        keys.remove();
+        process(key);
+      } // End while
+
+      flushWritten();
+    } // End while
+
+    closeAll();
+
+  } // End ‘run()’ Method
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  private void process(SelectionKey key)
+  {
+
+    BrokerSession session = (BrokerSession) key.attachment();
+
+    try
+    {
+      if (key.isValid() && key.isReadable())
+        session.handleRead();
+      if (key.isValid() && key.isWritable())
+        session.handleWrite();
+    } // End try
+
+    catch (CancelledKeyException cke)
+    {
+      // Closed while being processed; nothing left to do.
+    } // End ‘CancelledKeyException’ catch
+
+    catch (RuntimeException re)
+    {
+      log.printError("Unexpected failure on " + getName() + ": " + re);
+      session.close();
+    } // End ‘RuntimeException’ catch
+
+  } // End ‘process(SelectionKey)’ Method
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  private void flushWritten()
+  {
+
+    for (int index = 0; index < written.size(); index++)
+      written.get(index).flush();
+
+    written.clear();
+
+  } // End ‘flushWritten()’ Method
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+  private void closeAll()
+  {
+
+    for (SelectionKey key : selector.keys())
+      ((BrokerSession) key.attachment()).close();
+
+    try
+    {
+      selector.close();
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printError("I/O error when closing " + getName() + ".");
+    } // End ‘IOException’ catch
+
+  } // End ‘closeAll()’ Method
+
+// -------------------------------------------- BrokerLoop Class ---------------
+
+} // End ‘BrokerLoop’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
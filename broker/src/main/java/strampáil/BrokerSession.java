@@ -0,0 +1,584 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>BrokerSession</code> is one client's connection to a
+ * {@link StompBroker}. Its frames are decoded and acted on by the
+ * {@link BrokerLoop} it was registered with, which is also the only thread
+ * to touch its subscriptions.
+ * <p>
+ * Frames for the client may be queued from any loop, since a
+ * <code>SEND</code> on one connection is passed on to subscribers on
+ * others. They are written later in the same pass, all at once; anything
+ * the socket cannot take is finished off by this connection's own loop. A
+ * client that falls so far behind that 64MiB is waiting for it is
+ * disconnected, rather than let it run the broker out of memory.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+class BrokerSession implements Constants
+{
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /** The most bytes left waiting for a client before it is dropped. */
+  static final long MAX_PENDING = 67108864;
+
+  private static final int GATHER_LIMIT = 128; // Buffers per write.
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  private final StompBroker broker;
+  private final BrokerLoop loop;
+  private final SocketChannel channel;
+  private final Log log;
+  private final FrameDecoder decoder;
+  private final HashMap<String, BrokerSubscription> subscriptions;
+  private final ArrayDeque<ByteBuffer> pending;
+  private final ArrayDeque<SharedFrame> shares; // Guarded by ‘pending’.
+  private final ByteBuffer[] gather; // Guarded by ‘pending’.
+  private final Runnable closeTask;
+  private volatile SelectionKey key;
+  private long pendingBytes; // Guarded by ‘pending’.
+  private boolean writing, queued, ending, closed; // Guarded by ‘pending’.
+  private boolean connected; // Only for the loop thread.
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  BrokerSession(StompBroker broker, BrokerLoop loop, SocketChannel channel)
+  {
+
+    this.broker = broker;
+    this.loop = loop;
+    this.channel = channel;
+    log = broker.getLog();
+    decoder = new FrameDecoder(FrameDecoder.DEFAULT_CAPACITY,
+      broker.getMaxFrameSize(), broker.getMaxFrameSize());
+    subscriptions = new HashMap<String, BrokerSubscription>();
+    pending = new ArrayDeque<ByteBuffer>();
+    shares = new ArrayDeque<SharedFrame>();
+    gather = new ByteBuffer[GATHER_LIMIT];
+    key = null;
+    pendingBytes = 0;
+    writing = false;
+    queued = false;
+    ending = false;
+    closed = false;
+    connected = false;
+    closeTask = new Runnable()
+    {
+      public void run()
+      {
+        close();
+      } // End ‘run()’ Method
+    };
+
+  } // End ‘BrokerSession(StompBroker, BrokerLoop, SocketChannel)’ Constructor
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Queues a frame to be written to the client, by the end of the calling
+   * loop's pass (or at once, if not called from a loop).
+   *
+   * @param frame The encoded frame, ready to be written.
+   */
+  void send(ByteBuffer frame)
+  {
+
+    log.printSendFrame(frame);
+
+    if (!queue(frame, null, null))
+      BufferPool.release(frame);
+
+  } // End ‘send(ByteBuffer)’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Queues a <code>MESSAGE</code> frame to be written to the client, as
+   * {@link #send(ByteBuffer)} does, its head and shared tail going out
+   * together in the same gathering write.
+   *
+   * @param head The start of the frame, naming the subscription.
+   * @param message The rest of the frame, shared with other subscribers.
+   */
+  void send(byte[] head, SharedFrame message)
+  {
+
+    ByteBuffer tail = message.view();
+    if (log.isEnabled(DEBUG))
+      log.printSendFrame(ByteBuffer.allocate(head.length + tail.remaining())
+        .put(head).put(tail.duplicate()).flip());
+
+    if (!queue(ByteBuffer.wrap(head), tail, message))
+      message.release();
+
+  } // End ‘send(byte[], SharedFrame)’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Writes as much of what is queued as the socket will take, leaving the
+   * rest to this connection's loop.
+   */
+  void flush()
+  {
+
+    synchronized (pending)
+    {
+      queued = false;
+      if (!writing && !closed)
+        writePending();
+    } // End synchronized
+
+  } // End ‘flush()’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Closes the connection at once, dropping anything still to be written.
+   * Must be called on this connection's loop.
+   */
+  void close()
+  {
+
+    synchronized (pending)
+    {
+      if (closed)
+        return;
+      closed = true;
+
+      while (!pending.isEmpty())
+        release(pending.poll());
+      pendingBytes = 0;
+    } // End synchronized
+
+    unsubscribeAll();
+
+    try
+    {
+      channel.close(); // Also cancels the selection key.
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printError("I/O error when closing connection.");
+    } // End ‘IOException’ catch
+
+  } // End ‘close()’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+// ============================================== Loop Callbacks ===============
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  SocketChannel channel()
+  {
+    return channel;
+  } // End ‘channel()’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  void registered(SelectionKey key)
+  {
+    this.key = key;
+  } // End ‘registered(SelectionKey)’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  void handleRead()
+  {
+
+    try
+    {
+      int count = decoder.fill(channel);
+
+      Frame frame = decoder.next();
+      while (frame != null && !isEnding())
+      {
+        log.printReceiveFrame(frame);
+        handle(frame);
+        frame = decoder.next();
+      } // End while
+
+      if (count == -1)
+      {
+        log.printInfo("Connection closed by client.");
+        close();
+      } // End if
+
+    } // End try
+
+    catch (SocketException se)
+    {
+      log.printInfo("Connection to client lost: " + se.getMessage());
+      close();
+    } // End ‘SocketException’ catch
+
+    catch (IOException ioe)
+    {
+      if (channel.isOpen())
+        fail("Unable to parse frame: " + ioe.getMessage(), null);
+    } // End ‘IOException’ catch
+
+  } // End ‘handleRead()’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  void handleWrite()
+  {
+
+    synchronized (pending)
+    {
+      writing = false;
+      if (!closed)
+        writePending();
+    } // End synchronized
+
+  } // End ‘handleWrite()’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Acts on a frame from the client, answering it with a receipt if one is
+   * asked for.
+   */
+  private void handle(Frame frame)
+  {
+
+    String command = frame.getCommand();
+    String receipt = frame.getHeader("receipt");
+
+    if (command.equals("CONNECT") || command.equals("STOMP"))
+    {
+      if (connected)
+      {
+        fail("Already connected.", receipt);
+        return;
+      } // End if
+
+      connected = true;
+      send(FrameEncoder.connected());
+      return; // Receipts are not given for connecting.
+    } // End if
+    else if (!connected)
+    {
+      fail("Not connected.", receipt);
+      return;
+    } // End else if
+
+    if (command.equals("SEND"))
+    {
+      if (frame.getHeader("destination") == null)
+      {
+        fail("SEND frame has no destination.", receipt);
+        return;
+      } // End if
+      else if (frame.getHeader("transaction") != null)
+      {
+        fail("Transactions are not supported.", receipt);
+        return;
+      } // End else if
+
+      broker.publish(frame);
+    } // End if
+    else if (command.equals("SUBSCRIBE"))
+    {
+      if (!subscribe(frame.getHeader("id"), frame.getHeader("destination"),
+        receipt))
+        return;
+    } // End else if
+    else if (command.equals("UNSUBSCRIBE"))
+    {
+      String id = frame.getHeader("id");
+      BrokerSubscription subscription =
+        id == null ? null : subscriptions.remove(id);
+      if (subscription == null)
+      {
+        fail("No such subscription.", receipt);
+        return;
+      } // End if
+
+      broker.unsubscribe(subscription);
+    } // End else if
+    else if (!command.equals("DISCONNECT") && !command.equals("ACK") &&
+      !command.equals("NACK"))
+    {
+      fail(command + " frames are not supported.", receipt);
+      return;
+    } // End else if
+
+    if (receipt != null)
+      send(FrameEncoder.receipt(receipt));
+
+    if (command.equals("DISCONNECT"))
+      end();
+
+  } // End ‘handle(Frame)’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * @return Whether the subscription was made (the client having been sent
+   * an <code>ERROR</code> frame if not).
+   */
+  private boolean subscribe(String id, String destination, String receipt)
+  {
+
+    if (id == null || destination == null)
+      fail("SUBSCRIBE frame needs both an id and a destination.", receipt);
+    else if (subscriptions.containsKey(id))
+      fail("Subscription ‘" + id + "’ already exists.", receipt);
+    else
+    {
+      BrokerSubscription subscription =
+        new BrokerSubscription(this, id, destination);
+      subscriptions.put(id, subscription);
+      broker.subscribe(subscription);
+      return true;
+    } // End else
+
+    return false;
+
+  } // End ‘subscribe(String, String, String)’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Sends the client an <code>ERROR</code> frame, and then disconnects it.
+   */
+  private void fail(String message, String receipt)
+  {
+    log.printWarning("Sending ERROR: " + message);
+    send(FrameEncoder.error(message, receipt));
+    end();
+  } // End ‘fail(String, String)’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Stops reading from the client and passing messages on to it, and
+   * closes the connection once everything queued for it has been written.
+   */
+  private void end()
+  {
+
+    unsubscribeAll();
+
+    synchronized (pending)
+    {
+      ending = true;
+      updateInterest();
+      if (pending.isEmpty() && !writing)
+        closeSoon(); // No write is left to close it afterwards.
+    } // End synchronized
+
+  } // End ‘end()’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Adds a frame to those waiting to be written, and sees to it that they
+   * are flushed.
+   *
+   * @param tail A view of a shared frame to go out straight after this one
+   * (<code>null</code> if none).
+   * @param shared The frame the tail is a view of (<code>null</code> if
+   * none).
+   * @return Whether the frame was queued. If not, the connection is closed
+   * or on its way to being closed.
+   */
+  private boolean queue(ByteBuffer frame, ByteBuffer tail, SharedFrame shared)
+  {
+
+    boolean first;
+    synchronized (pending)
+    {
+      if (closed || pendingBytes > MAX_PENDING)
+      {
+        if (!closed && !ending)
+        {
+          log.printWarning("Client too slow to keep up, disconnecting.");
+          ending = true;
+          loop.execute(closeTask);
+        } // End if
+        return false;
+      } // End if
+
+      pending.add(frame);
+      pendingBytes += frame.remaining();
+      if (tail != null)
+      {
+        pending.add(tail);
+        shares.add(shared);
+        pendingBytes += tail.remaining();
+      } // End if
+
+      first = !queued;
+      queued = true;
+    } // End synchronized
+
+    if (!first)
+      return true; // Already due to be flushed.
+
+    BrokerLoop current = BrokerLoop.current();
+    if (current != null)
+      current.written(this);
+    else
+      flush();
+
+    return true;
+
+  } // End ‘queue(ByteBuffer, ByteBuffer, SharedFrame)’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Lets go of a frame that has been written or dropped. Read-only frames
+   * are views of shared frames, whose references are kept in the same
+   * order as the views are queued. Must be called holding ‘pending’.
+   */
+  private void release(ByteBuffer frame)
+  {
+    if (frame.isReadOnly())
+      shares.poll().release();
+    else
+      BufferPool.release(frame);
+  } // End ‘release(ByteBuffer)’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  private boolean isEnding()
+  {
+
+    synchronized (pending)
+    {
+      return ending;
+    } // End synchronized
+
+  } // End ‘isEnding()’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  private void unsubscribeAll()
+  {
+
+    for (BrokerSubscription subscription : subscriptions.values())
+      broker.unsubscribe(subscription);
+    subscriptions.clear();
+
+  } // End ‘unsubscribeAll()’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Writes queued frames, as many at a time as a gathering write will
+   * take, until the socket will take no more. Must be called holding
+   * ‘pending’.
+   */
+  private void writePending()
+  {
+
+    try
+    {
+      while (!pending.isEmpty())
+      {
+        int count = 0;
+        long size = 0;
+        for (ByteBuffer frame : pending)
+        {
+          gather[count++] = frame;
+          size += frame.remaining();
+          if (count == gather.length)
+            break;
+        } // End for
+
+        long written = channel.write(gather, 0, count);
+        Arrays.fill(gather, 0, count, null);
+        pendingBytes -= written;
+
+        while (!pending.isEmpty() && !pending.peek().hasRemaining())
+          release(pending.poll());
+
+        if (written < size)
+          break; // The socket is full.
+      } // End while
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printInfo("Unable to write to client: " + ioe.getMessage());
+      closeSoon();
+      return;
+    } // End ‘IOException’ catch
+
+    writing = !pending.isEmpty();
+    updateInterest();
+
+    if (!writing && ending)
+      closeSoon();
+
+  } // End ‘writePending()’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Closes the connection on its own loop, now if this is it.
+   */
+  private void closeSoon()
+  {
+    if (loop.inLoop())
+      close();
+    else
+      loop.execute(closeTask);
+  } // End ‘closeSoon()’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+  /**
+   * Brings the channel's interest set into line with whether it is still
+   * reading and whether it has writes queued. Must be called holding
+   * ‘pending’.
+   */
+  private void updateInterest()
+  {
+
+    SelectionKey registration = key;
+    if (registration == null || !registration.isValid())
+      return;
+
+    int interest = (ending ? 0 : SelectionKey.OP_READ) |
+      (writing ? SelectionKey.OP_WRITE : 0);
+    if (registration.interestOps() == interest)
+      return;
+
+    registration.interestOps(interest);
+    if (!loop.inLoop())
+      registration.selector().wakeup();
+
+  } // End ‘updateInterest()’ Method
+
+// ----------------------------------------- BrokerSession Class ---------------
+
+} // End ‘BrokerSession’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
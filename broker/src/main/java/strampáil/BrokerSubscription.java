@@ -0,0 +1,76 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>BrokerSubscription</code> is one <code>SUBSCRIBE</code> made to a
+ * {@link StompBroker}: the connection it was made on, the ID the client gave
+ * it and its destination. The start of every <code>MESSAGE</code> frame it
+ * is sent, which names it, is encoded once up front.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class BrokerSubscription
+{
+
+// ------------------------------------ BrokerSubscription Class ---------------
+
+  private final BrokerSession session;
+  private final String id, destination;
+  private final byte[] head;
+
+// ------------------------------------ BrokerSubscription Class ---------------
+
+  BrokerSubscription(BrokerSession session, String id, String destination)
+  {
+    this.session = session;
+    this.id = id;
+    this.destination = destination;
+    head = FrameEncoder.messageHead(id);
+  } // End ‘BrokerSubscription(BrokerSession, String, String)’ Constructor
+
+// ------------------------------------ BrokerSubscription Class ---------------
+
+// =================================================== Accessors ===============
+
+// ------------------------------------ BrokerSubscription Class ---------------
+
+  BrokerSession getSession()
+  {
+    return session;
+  } // End ‘getSession()’ Method
+
+// ------------------------------------ BrokerSubscription Class ---------------
+
+  String getId()
+  {
+    return id;
+  } // End ‘getId()’ Method
+
+// ------------------------------------ BrokerSubscription Class ---------------
+
+  String getDestination()
+  {
+    return destination;
+  } // End ‘getDestination()’ Method
+
+// ------------------------------------ BrokerSubscription Class ---------------
+
+  /**
+   * @return The start of every <code>MESSAGE</code> frame sent to this
+   * subscription (not to be written to).
+   */
+  byte[] getHead()
+  {
+    return head;
+  } // End ‘getHead()’ Method
+
+// ------------------------------------ BrokerSubscription Class ---------------
+
+} // End ‘BrokerSubscription’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
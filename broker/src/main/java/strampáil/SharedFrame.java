@@ -0,0 +1,71 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>SharedFrame</code> is the part of a <code>MESSAGE</code> frame
+ * that is the same for every subscriber it goes to (see
+ * {@link FrameEncoder#messageTail(String, Frame)}), encoded once and written
+ * to each through a view of its own. The buffer is counted out and back
+ * in: it goes back to the {@link BufferPool} once the last view of it has
+ * been written or dropped, and the publisher has let go of it too.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class SharedFrame
+{
+
+// ------------------------------------------- SharedFrame Class ---------------
+
+  private final ByteBuffer frame;
+  private final AtomicInteger references;
+
+// ------------------------------------------- SharedFrame Class ---------------
+
+  /**
+   * @param frame The encoded frame, ready to be written. Whoever shares it
+   * holds the first reference to it.
+   */
+  SharedFrame(ByteBuffer frame)
+  {
+    this.frame = frame;
+    references = new AtomicInteger(1);
+  } // End ‘SharedFrame(ByteBuffer)’ Constructor
+
+// ------------------------------------------- SharedFrame Class ---------------
+
+  /**
+   * Takes another reference to the frame, to be let go of with
+   * {@link #release()} once written.
+   *
+   * @return A read-only view of the frame, with a position of its own.
+   */
+  ByteBuffer view()
+  {
+    references.incrementAndGet();
+    return frame.asReadOnlyBuffer();
+  } // End ‘view()’ Method
+
+// ------------------------------------------- SharedFrame Class ---------------
+
+  /**
+   * Lets go of a reference to the frame, returning its buffer to the pool
+   * if it was the last.
+   */
+  void release()
+  {
+    if (references.decrementAndGet() == 0)
+      BufferPool.release(frame);
+  } // End ‘release()’ Method
+
+// ------------------------------------------- SharedFrame Class ---------------
+
+} // End ‘SharedFrame’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,270 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>StompBroker</code> is a STOMP 1.1 server small enough to run in
+ * the same process as whatever uses it, for test rigs and edge nodes. It
+ * accepts <code>CONNECT</code> (or <code>STOMP</code>),
+ * <code>SUBSCRIBE</code>, <code>UNSUBSCRIBE</code>, <code>SEND</code> and
+ * <code>DISCONNECT</code>, and answers with <code>CONNECTED</code>,
+ * <code>MESSAGE</code>, <code>RECEIPT</code> and <code>ERROR</code> frames.
+ * Every <code>SEND</code> is passed on to every subscription to its
+ * destination at that moment, on whichever connection; nothing is stored
+ * for subscribers yet to come. Acknowledgements are accepted and ignored,
+ * and transactions are not supported. No heart-beats are kept.
+ * <p>
+ * Connections are spread across a few {@link BrokerLoop}s of the broker's
+ * own, each a single thread driving a selector, so thousands of clients
+ * need only a handful of threads. Frames are decoded with the same
+ * {@link FrameDecoder} the client uses, and the frames one pass of a loop
+ * gives rise to are written to each connection in a single gathering write.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+public final class StompBroker implements Runnable, Constants
+{
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  /** The port STOMP servers listen on by convention. */
+  public static final int DEFAULT_PORT = 61613;
+  /** The default size of the largest frame accepted (16MiB). */
+  public static final int DEFAULT_MAX_FRAME_SIZE = 16777216;
+
+  /** The number of loops each broker runs. */
+  static final int LOOP_COUNT =
+    Math.min(4, Runtime.getRuntime().availableProcessors());
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  private final ServerSocketChannel server;
+  private final BrokerLoop[] loops;
+  private final ConcurrentHashMap<String,
+    CopyOnWriteArrayList<BrokerSubscription>> destinations;
+  private final AtomicLong messageIDs;
+  private final Log log;
+  private final int maxFrameSize;
+  private int nextLoop; // Only for the accepting thread.
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  /**
+   * Starts a broker listening on every interface, printing only warnings
+   * and errors.
+   *
+   * @param port The port to listen on (0 for any free one).
+   * @throws IOException If the port could not be listened on.
+   */
+  public StompBroker(int port) throws IOException
+  {
+    this(null, port, WARNING, DEFAULT_MAX_FRAME_SIZE);
+  } // End ‘StompBroker(int)’ Constructor
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  /**
+   * Starts a broker.
+   *
+   * @param address The address to listen on (<code>null</code> for every
+   * interface). This can be a host name or an IP address.
+   * @param port The port to listen on (0 for any free one).
+   * @param debugLevel The verbosity level of messages displayed by the
+   * broker.
+   * @param maxFrameSize The size of the largest frame accepted, in bytes.
+   * A client sending a larger one is sent an <code>ERROR</code> frame and
+   * disconnected.
+   * @throws IOException If the port could not be listened on.
+   */
+  public StompBroker(String address, int port, int debugLevel,
+    int maxFrameSize) throws IOException
+  {
+
+    log = new Log(debugLevel);
+    this.maxFrameSize = maxFrameSize;
+    destinations = new ConcurrentHashMap<String,
+      CopyOnWriteArrayList<BrokerSubscription>>();
+    messageIDs = new AtomicLong(0);
+    nextLoop = 0;
+
+    server = ServerSocketChannel.open();
+    server.bind(new InetSocketAddress(address == null ? null :
+      InetAddress.getByName(address), port), 1024);
+
+    loops = new BrokerLoop[LOOP_COUNT];
+    for (int index = 0; index < loops.length; index++)
+      loops[index] = new BrokerLoop(index, log);
+    for (BrokerLoop loop : loops)
+      loop.start();
+
+    Thread acceptor = new Thread(this, "strampáil-broker-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+
+    log.printInfo("Broker listening on port " + getPort());
+
+  } // End ‘StompBroker(String, int, int, int)’ Constructor
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  /**
+   * @return The port being listened on.
+   */
+  public int getPort()
+  {
+    return server.socket().getLocalPort();
+  } // End ‘getPort()’ Method
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  /**
+   * Stops accepting connections and closes every one already made.
+   */
+  public void close()
+  {
+
+    try
+    {
+      server.close();
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printError("I/O error when closing broker.");
+    } // End ‘IOException’ catch
+
+    for (BrokerLoop loop : loops)
+      loop.shutDown();
+
+  } // End ‘close()’ Method
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  public void run()
+  {
+
+    while (server.isOpen())
+      try
+      {
+        SocketChannel channel = server.accept();
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true); // Writes are batched already.
+
+        BrokerLoop loop = loops[nextLoop];
+        nextLoop = (nextLoop + 1) % loops.length;
+        loop.register(new BrokerSession(this, loop, channel));
+      } // End try
+
+      catch (IOException ioe)
+      {
+        if (server.isOpen())
+          log.printError("Unable to accept connection: " + ioe);
+      } // End ‘IOException’ catch
+
+  } // End ‘run()’ Method
+
+// ------------------------------------------- StompBroker Class ---------------
+
+// =========================================== Session Callbacks ===============
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  /**
+   * Starts passing on frames sent to a subscription's destination.
+   */
+  void subscribe(BrokerSubscription subscription)
+  {
+
+    String destination = subscription.getDestination();
+    CopyOnWriteArrayList<BrokerSubscription> subscribers =
+      destinations.get(destination);
+
+    if (subscribers == null)
+    {
+      subscribers = new CopyOnWriteArrayList<BrokerSubscription>();
+      CopyOnWriteArrayList<BrokerSubscription> existing =
+        destinations.putIfAbsent(destination, subscribers);
+      if (existing != null)
+        subscribers = existing;
+    } // End if
+
+    subscribers.add(subscription);
+
+  } // End ‘subscribe(BrokerSubscription)’ Method
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  /**
+   * Stops passing on frames sent to a subscription's destination.
+   */
+  void unsubscribe(BrokerSubscription subscription)
+  {
+
+    CopyOnWriteArrayList<BrokerSubscription> subscribers =
+      destinations.get(subscription.getDestination());
+    if (subscribers != null)
+      subscribers.remove(subscription);
+
+  } // End ‘unsubscribe(BrokerSubscription)’ Method
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  /**
+   * Passes a <code>SEND</code> frame on to every subscription to its
+   * destination, as a <code>MESSAGE</code> frame. All but the start of the
+   * frame is encoded just once and shared between them, so another
+   * subscriber costs only a pair of views to write.
+   *
+   * @param send The frame, as decoded.
+   */
+  void publish(Frame send)
+  {
+
+    CopyOnWriteArrayList<BrokerSubscription> subscribers =
+      destinations.get(send.getHeader("destination"));
+    if (subscribers == null || subscribers.isEmpty())
+      return;
+
+    SharedFrame message = new SharedFrame(FrameEncoder.messageTail(
+      Long.toString(messageIDs.incrementAndGet()), send));
+    for (BrokerSubscription subscriber : subscribers)
+      subscriber.getSession().send(subscriber.getHead(), message);
+    message.release();
+
+  } // End ‘publish(Frame)’ Method
+
+// ------------------------------------------- StompBroker Class ---------------
+
+// =================================================== Accessors ===============
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  Log getLog()
+  {
+    return log;
+  } // End ‘getLog()’ Method
+
+// ------------------------------------------- StompBroker Class ---------------
+
+  int getMaxFrameSize()
+  {
+    return maxFrameSize;
+  } // End ‘getMaxFrameSize()’ Method
+
+// ------------------------------------------- StompBroker Class ---------------
+
+} // End ‘StompBroker’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
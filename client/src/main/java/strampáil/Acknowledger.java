@@ -0,0 +1,228 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * An <code>Acknowledger</code> collects the acknowledgements for one
+ * subscription and sends them to the server in batches, once
+ * <code>batchCount</code> messages have been acknowledged or the oldest of
+ * them has waited <code>batchDelay</code> milliseconds.
+ * <p>
+ * In {@link Constants#CLIENT_ACK} mode an <code>ACK</code> covers every
+ * message before it, so a batch goes out as a single <code>ACK</code> for the
+ * latest message. In {@link Constants#CLIENT_INDIVIDUAL_ACK} mode every
+ * message needs its own <code>ACK</code>, so a batch goes out as one write
+ * holding them all.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+class Acknowledger implements Constants
+{
+
+// ------------------------------------------ Acknowledger Class ---------------
+
+  private final WritePipeline pipeline;
+  private final Log log;
+  private final ClientMetrics metrics; // Null if none are kept.
+  private final String subscriptionID;
+  private final int ackMode, batchCount;
+  private final long batchDelay;
+  private String latest;
+  private ArrayList<String> pending;
+  private ScheduledFuture<?> delayedFlush;
+  private Runnable delayedTask, flushTask;
+  private ReentrantLock lock;
+
+// ------------------------------------------ Acknowledger Class ---------------
+
+  Acknowledger(WritePipeline pipeline, Log log, ClientMetrics metrics,
+    String subscriptionID, int ackMode, int batchCount, long batchDelay)
+  {
+
+    this.pipeline = pipeline;
+    this.log = log;
+    this.metrics = metrics;
+    this.subscriptionID = subscriptionID;
+    this.ackMode = ackMode;
+    this.batchCount = batchCount;
+    this.batchDelay = batchDelay;
+
+    latest = null;
+    pending = new ArrayList<String>();
+    delayedFlush = null;
+    lock = new ReentrantLock();
+    delayedTask = new Runnable()
+    {
+      public void run()
+      {
+        pipeline.execute(flushTask); // Off the shared timer, if it may block.
+      } // End ‘run()’ Method
+    };
+    flushTask = new Runnable()
+    {
+      public void run()
+      {
+        delayed();
+      } // End ‘run()’ Method
+    };
+
+  } // End ‘Acknowledger(WritePipeline, Log, ClientMetrics, String, int, int, long)’ Constructor
+
+// ------------------------------------------ Acknowledger Class ---------------
+
+  /**
+   * Records that a message has been dealt with, sending the batch it
+   * completes (if any).
+   *
+   * @param messageID The <code>message-id</code> of the message.
+   * @throws IOException If a batch was due and could not be written.
+   */
+  void ack(String messageID) throws IOException
+  {
+
+    lock.lock();
+    try
+    {
+      latest = messageID;
+      pending.add(messageID);
+
+      if (pending.size() >= batchCount || batchDelay <= 0)
+        flush();
+      else if (delayedFlush == null)
+        delayedFlush = Scheduler.schedule(delayedTask, batchDelay);
+    } // End try
+
+    finally
+    {
+      lock.unlock();
+    } // End finally
+
+  } // End ‘ack(String)’ Method
+
+// ------------------------------------------ Acknowledger Class ---------------
+
+  /**
+   * Tells the server at once that a message was not dealt with. Everything
+   * acknowledged before it is sent first.
+   *
+   * @param messageID The <code>message-id</code> of the message.
+   * @throws IOException If the frames could not be written.
+   */
+  void nack(String messageID) throws IOException
+  {
+
+    lock.lock();
+    try
+    {
+      flush();
+
+      ByteBuffer frame = FrameEncoder.nack(subscriptionID, messageID);
+      log.printSendFrame(frame);
+      if (metrics != null)
+        metrics.frameOut("NACK", frame.remaining());
+      pipeline.write(frame, true);
+    } // End try
+
+    finally
+    {
+      lock.unlock();
+    } // End finally
+
+  } // End ‘nack(String)’ Method
+
+// ------------------------------------------ Acknowledger Class ---------------
+
+  /**
+   * Sends every acknowledgement still held back.
+   *
+   * @throws IOException If the frames could not be written.
+   */
+  void flush() throws IOException
+  {
+
+    lock.lock();
+    try
+    {
+      if (delayedFlush != null)
+      {
+        delayedFlush.cancel(false);
+        delayedFlush = null;
+      } // End if
+
+      if (!pending.isEmpty())
+        writePending();
+    } // End try
+
+    finally
+    {
+      lock.unlock();
+    } // End finally
+
+  } // End ‘flush()’ Method
+
+// ------------------------------------------ Acknowledger Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ------------------------------------------ Acknowledger Class ---------------
+
+  /**
+   * Must be called holding the lock.
+   */
+  private void writePending() throws IOException
+  {
+
+    if (ackMode == CLIENT_ACK)
+      write(latest);
+    else
+      for (String messageID : pending)
+        write(messageID);
+
+    pending.clear();
+    latest = null;
+    pipeline.flush();
+
+  } // End ‘writePending()’ Method
+
+// ------------------------------------------ Acknowledger Class ---------------
+
+  private void write(String messageID) throws IOException
+  {
+    ByteBuffer frame = FrameEncoder.ack(subscriptionID, messageID);
+    log.printSendFrame(frame);
+    if (metrics != null)
+      metrics.frameOut("ACK", frame.remaining());
+    pipeline.write(frame, false);
+  } // End ‘write(String)’ Method
+
+// ------------------------------------------ Acknowledger Class ---------------
+
+  private void delayed()
+  {
+
+    try
+    {
+      flush();
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printIOError("ACK");
+    } // End ‘IOException’ catch
+
+  } // End ‘delayed()’ Method
+
+// ------------------------------------------ Acknowledger Class ---------------
+
+} // End ‘Acknowledger’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,39 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.util.List;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>BatchListener</code> is handed <code>MESSAGE</code> frames several
+ * at a time: whatever has arrived since it was last called, up to the
+ * delivery batch size. Handing frames over in batches means fewer calls, and
+ * lets the application work through them (and acknowledge them) in bulk.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @see ClientInterface#setDelivery(int, int)
+ * @see MessageListener
+ */
+public interface BatchListener
+{
+
+// ------------------------------------- BatchListener Interface ---------------
+
+  /**
+   * This method is triggered with each batch of <code>MESSAGE</code> frames,
+   * in the order they arrived. It is never called for the same listener by
+   * two threads at once.
+   *
+   * @param frames The frames. The list is reused once this method returns,
+   * so any frames wanted afterwards must be copied out of it.
+   */
+  void messagesReceived(List<Frame> frames);
+
+// ------------------------------------- BatchListener Interface ---------------
+
+} // End ‘BatchListener’ Interface
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,327 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>BoundedInbox</code> holds up to <code>capacity</code> frames in
+ * memory. What happens to frames arriving once it is full depends on its
+ * overflow policy:
+ * <ul>
+ * <li>{@link Constants#BLOCK_WHEN_FULL}: reading from the server is
+ * suspended until the inbox has drained to half its capacity, so that TCP
+ * flow control holds the server back. The frame that filled the inbox (and,
+ * with the streamed decoder, none after it) is still taken in.</li>
+ * <li>{@link Constants#DROP_OLDEST}: the oldest frame is dropped to make
+ * room.</li>
+ * <li>{@link Constants#DROP_NEWEST}: the new frame is dropped.</li>
+ * <li>{@link Constants#SPILL_TO_DISK}: the new frame is written to a
+ * temporary file, and read back once there is room again. Frames still come
+ * out in the order they arrived. The file is deleted once it has been read
+ * back in full.</li>
+ * </ul>
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+class BoundedInbox implements Inbox, Constants
+{
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  private final int capacity, policy, lowWatermark;
+  private final ArrayDeque<Frame> frames;
+  private Transport transport;
+  private boolean holdingBack, unflushed;
+  private long dropped, spilled;
+  private int onDisk;
+  private File spillFile;
+  private DataOutputStream spillOut;
+  private DataInputStream spillIn;
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  /**
+   * @param capacity The most frames to hold in memory.
+   * @param policy One of {@link Constants#BLOCK_WHEN_FULL},
+   * {@link Constants#DROP_OLDEST}, {@link Constants#DROP_NEWEST} or
+   * {@link Constants#SPILL_TO_DISK}.
+   */
+  BoundedInbox(int capacity, int policy)
+  {
+
+    this.capacity = capacity;
+    this.policy = policy;
+    lowWatermark = capacity / 2;
+
+    frames = new ArrayDeque<Frame>(Math.min(capacity, 1024));
+    transport = null;
+    holdingBack = false;
+    unflushed = false;
+    dropped = 0;
+    spilled = 0;
+    onDisk = 0;
+    spillFile = null;
+    spillOut = null;
+    spillIn = null;
+
+  } // End ‘BoundedInbox(int, int)’ Constructor
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  public synchronized void attach(Transport transport)
+  {
+    this.transport = transport;
+    holdingBack = false;
+  } // End ‘attach(Transport)’ Method
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  public synchronized boolean offer(Frame frame)
+  {
+
+    boolean taken = true;
+
+    if (onDisk > 0)
+      taken = spill(frame); // Must queue up behind those already spilled.
+    else if (frames.size() < capacity || policy == BLOCK_WHEN_FULL)
+    {
+      frames.add(frame);
+      if (policy == BLOCK_WHEN_FULL && frames.size() >= capacity &&
+        !holdingBack && transport != null)
+      {
+        holdingBack = true;
+        transport.suspendReading();
+      } // End if
+    } // End else if
+    else if (policy == DROP_OLDEST)
+    {
+      frames.poll();
+      frames.add(frame);
+      dropped++;
+    } // End else if
+    else if (policy == SPILL_TO_DISK)
+      taken = spill(frame);
+    else
+    {
+      dropped++;
+      taken = false;
+    } // End else
+
+    return taken;
+
+  } // End ‘offer(Frame)’ Method
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  public synchronized Frame poll()
+  {
+
+    Frame frame = frames.poll();
+    if (onDisk > 0 && frame == null)
+      frame = unspill();
+    else if (onDisk > 0)
+    {
+      Frame refill = unspill(); // One in for one out keeps it topped up.
+      if (refill != null)
+        frames.add(refill);
+    } // End else if
+
+    if (holdingBack && frames.size() <= lowWatermark)
+    {
+      holdingBack = false;
+      transport.resumeReading();
+    } // End if
+
+    return frame;
+
+  } // End ‘poll()’ Method
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  public synchronized int drain(Collection<? super Frame> into, int max)
+  {
+
+    int count = 0;
+    Frame frame = count < max ? poll() : null;
+    while (frame != null)
+    {
+      into.add(frame);
+      count++;
+      frame = count < max ? poll() : null;
+    } // End while
+
+    return count;
+
+  } // End ‘drain(Collection<? super Frame>, int)’ Method
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  public synchronized int size()
+  {
+    return frames.size() + onDisk;
+  } // End ‘size()’ Method
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  public synchronized long getDropped()
+  {
+    return dropped;
+  } // End ‘getDropped()’ Method
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  public synchronized long getSpilled()
+  {
+    return spilled;
+  } // End ‘getSpilled()’ Method
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  private boolean spill(Frame frame)
+  {
+
+    try
+    {
+      if (spillOut == null)
+      {
+        spillFile = File.createTempFile("strampáil-", ".spill");
+        try
+        {
+          spillIn = new DataInputStream(new BufferedInputStream(
+            new FileInputStream(spillFile)));
+          spillOut = new DataOutputStream(new BufferedOutputStream(
+            new FileOutputStream(spillFile)));
+        } // End try
+
+        catch (IOException ioe)
+        {
+          deleteSpillFile();
+          throw ioe;
+        } // End ‘IOException’ catch
+      } // End if
+
+      Map<String, String> headers = frame.getHeaders();
+      spillOut.writeUTF(frame.getCommand());
+      spillOut.writeInt(headers.size());
+      for (Map.Entry<String, String> header : headers.entrySet())
+      {
+        spillOut.writeUTF(header.getKey());
+        spillOut.writeUTF(header.getValue());
+      } // End for
+
+      ByteBuffer body = frame.getBody();
+      byte[] bodyBytes = new byte[body.remaining()];
+      body.get(bodyBytes);
+      spillOut.writeInt(bodyBytes.length);
+      spillOut.write(bodyBytes);
+
+      unflushed = true;
+      onDisk++;
+      spilled++;
+    } // End try
+
+    catch (IOException ioe)
+    {
+      Printer.printError("Unable to spill message to disk – dropping it.");
+      dropped++;
+      return false;
+    } // End ‘IOException’ catch
+
+    return true;
+
+  } // End ‘spill(Frame)’ Method
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  private Frame unspill()
+  {
+
+    Frame frame = null;
+
+    try
+    {
+      if (unflushed)
+      {
+        spillOut.flush();
+        unflushed = false;
+      } // End if
+
+      String command = spillIn.readUTF();
+      HashMap<String, String> headers = new HashMap<String, String>();
+      for (int count = spillIn.readInt(); count > 0; count--)
+        headers.put(spillIn.readUTF(), spillIn.readUTF());
+
+      byte[] body = new byte[spillIn.readInt()];
+      spillIn.readFully(body);
+
+      frame = new Frame(command, headers, body);
+      onDisk--;
+    } // End try
+
+    catch (IOException ioe)
+    {
+      Printer.printError("Unable to read back spilled messages – " + onDisk +
+        " dropped.");
+      dropped += onDisk;
+      onDisk = 0;
+    } // End ‘IOException’ catch
+
+    if (onDisk == 0)
+      deleteSpillFile();
+
+    return frame;
+
+  } // End ‘unspill()’ Method
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+  private void deleteSpillFile()
+  {
+
+    try
+    {
+      if (spillOut != null)
+        spillOut.close();
+      if (spillIn != null)
+        spillIn.close();
+    } // End try
+
+    catch (IOException ioe)
+    {
+      Printer.printWarning("Unable to close spill file.");
+    } // End ‘IOException’ catch
+
+    if (!spillFile.delete())
+      Printer.printWarning("Unable to delete spill file " + spillFile + ".");
+
+    spillOut = null;
+    spillIn = null;
+    spillFile = null;
+
+  } // End ‘deleteSpillFile()’ Method
+
+// ------------------------------------------ BoundedInbox Class ---------------
+
+} // End ‘BoundedInbox’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
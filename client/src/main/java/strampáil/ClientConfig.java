@@ -0,0 +1,512 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>ClientConfig</code> gathers up how a {@link ClientInterface} is to
+ * behave: how much it prints, which transport it uses, how large its
+ * buffers and inbox are, and how long it waits on the server. Each client
+ * takes a copy of the configuration it is given, so one configuration may
+ * be set up once and handed to any number of clients, and changing it
+ * afterwards changes none of them.
+ * <p>
+ * Settings that are out of range are refused, with a warning, leaving the
+ * current ones in place.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @see ClientInterface#ClientInterface(String, int, ClientConfig, Notifier)
+ */
+public class ClientConfig implements Constants
+{
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  private int debugLevel, transportMode, decoderMode, threadMode, metricsMode;
+  private int batchSize, ackCount, heartBeatOut, heartBeatIn;
+  private int maxFrameSize, maxHeapBody;
+  private int inboxCapacity, overflowPolicy, inboxType;
+  private int deliveryMode, deliveryBatch;
+  private long connectTimeout, receiptTimeout, linger, ackDelay;
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * Sets up a configuration with every setting at its default: warnings and
+   * errors printed, the blocking transport with the buffered decoder,
+   * platform threads, no write batching, an unbounded inbox, direct
+   * delivery and no metrics.
+   */
+  public ClientConfig()
+  {
+
+    debugLevel = WARNING;
+    transportMode = BLOCKING_TRANSPORT;
+    decoderMode = BUFFERED_DECODER;
+    threadMode = PLATFORM_THREADS;
+    metricsMode = NO_METRICS;
+    connectTimeout = ClientInterface.DEFAULT_TIMEOUT;
+    receiptTimeout = ClientInterface.DEFAULT_TIMEOUT;
+    batchSize = 0;
+    linger = 0;
+    ackCount = ClientInterface.DEFAULT_ACK_COUNT;
+    ackDelay = ClientInterface.DEFAULT_ACK_DELAY;
+    heartBeatOut = ClientInterface.DEFAULT_HEART_BEAT;
+    heartBeatIn = ClientInterface.DEFAULT_HEART_BEAT;
+    maxFrameSize = ClientInterface.DEFAULT_MAX_FRAME_SIZE;
+    maxHeapBody = ClientInterface.DEFAULT_MAX_HEAP_BODY;
+    inboxCapacity = Integer.MAX_VALUE;
+    overflowPolicy = BLOCK_WHEN_FULL;
+    inboxType = LOCKED_INBOX;
+    deliveryMode = DIRECT_DELIVERY;
+    deliveryBatch = ClientInterface.DEFAULT_DELIVERY_BATCH;
+
+  } // End ‘ClientConfig()’ Constructor
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * Sets up a copy of another configuration.
+   *
+   * @param other The configuration to copy.
+   */
+  public ClientConfig(ClientConfig other)
+  {
+
+    debugLevel = other.debugLevel;
+    transportMode = other.transportMode;
+    decoderMode = other.decoderMode;
+    threadMode = other.threadMode;
+    metricsMode = other.metricsMode;
+    connectTimeout = other.connectTimeout;
+    receiptTimeout = other.receiptTimeout;
+    batchSize = other.batchSize;
+    linger = other.linger;
+    ackCount = other.ackCount;
+    ackDelay = other.ackDelay;
+    heartBeatOut = other.heartBeatOut;
+    heartBeatIn = other.heartBeatIn;
+    maxFrameSize = other.maxFrameSize;
+    maxHeapBody = other.maxHeapBody;
+    inboxCapacity = other.inboxCapacity;
+    overflowPolicy = other.overflowPolicy;
+    inboxType = other.inboxType;
+    deliveryMode = other.deliveryMode;
+    deliveryBatch = other.deliveryBatch;
+
+  } // End ‘ClientConfig(ClientConfig)’ Constructor
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * Sets how much the client prints. Other clients in the same JVM are
+   * unaffected.
+   *
+   * @param debugLevel One of {@link Constants#DEBUG}, {@link Constants#INFO},
+   * {@link Constants#WARNING} (the default), {@link Constants#ERROR} or
+   * {@link Constants#NONE}.
+   */
+  public void setDebugLevel(int debugLevel)
+  {
+    this.debugLevel = debugLevel;
+  } // End ‘setDebugLevel(int)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * @param transportMode See {@link ClientInterface#setTransportMode(int)}.
+   * @return Whether the setting was taken.
+   */
+  public boolean setTransportMode(int transportMode)
+  {
+
+    if (transportMode != BLOCKING_TRANSPORT && transportMode != NIO_TRANSPORT)
+    {
+      Printer.printWarning("Unknown transport mode " + transportMode +
+        ", keeping the current one.");
+      return false;
+    } // End if
+
+    this.transportMode = transportMode;
+    return true;
+
+  } // End ‘setTransportMode(int)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * @param decoderMode See {@link ClientInterface#setDecoderMode(int)}.
+   * @return Whether the setting was taken.
+   */
+  public boolean setDecoderMode(int decoderMode)
+  {
+
+    if (decoderMode != BUFFERED_DECODER && decoderMode != STREAMED_DECODER)
+    {
+      Printer.printWarning("Unknown decoder mode " + decoderMode +
+        ", keeping the current one.");
+      return false;
+    } // End if
+
+    this.decoderMode = decoderMode;
+    return true;
+
+  } // End ‘setDecoderMode(int)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * @param threadMode See {@link ClientInterface#setThreadMode(int)}.
+   * @return Whether the setting was taken.
+   */
+  public boolean setThreadMode(int threadMode)
+  {
+
+    if (threadMode != PLATFORM_THREADS && threadMode != VIRTUAL_THREADS)
+      Printer.printWarning("Unknown thread mode " + threadMode +
+        ", keeping the current one.");
+    else if (threadMode == VIRTUAL_THREADS && !Threads.virtualSupported())
+      Printer.printWarning("Virtual threads are not available on this JVM," +
+        " keeping the current thread mode.");
+    else
+    {
+      this.threadMode = threadMode;
+      return true;
+    } // End else
+
+    return false;
+
+  } // End ‘setThreadMode(int)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * @param metricsMode See {@link ClientInterface#setMetricsMode(int)}.
+   * @return Whether the setting was taken.
+   */
+  public boolean setMetricsMode(int metricsMode)
+  {
+
+    if (metricsMode != NO_METRICS && metricsMode != POLLED_METRICS &&
+      metricsMode != JMX_METRICS)
+    {
+      Printer.printWarning("Unknown metrics mode " + metricsMode +
+        ", keeping the current one.");
+      return false;
+    } // End if
+
+    this.metricsMode = metricsMode;
+    return true;
+
+  } // End ‘setMetricsMode(int)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * @param milliseconds See {@link ClientInterface#setConnectTimeout(long)}.
+   */
+  public void setConnectTimeout(long milliseconds)
+  {
+    connectTimeout = milliseconds;
+  } // End ‘setConnectTimeout(long)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * @param milliseconds See {@link ClientInterface#setReceiptTimeout(long)}.
+   */
+  public void setReceiptTimeout(long milliseconds)
+  {
+    receiptTimeout = milliseconds;
+  } // End ‘setReceiptTimeout(long)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * See {@link ClientInterface#setWriteBatching(int, long)}.
+   *
+   * @param batchSize The number of bytes at which a batch is written at once.
+   * @param linger The longest a frame may wait for others to join its batch
+   * (zero turns batching off).
+   */
+  public void setWriteBatching(int batchSize, long linger)
+  {
+    this.batchSize = batchSize;
+    this.linger = linger;
+  } // End ‘setWriteBatching(int, long)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * See {@link ClientInterface#setAckBatching(int, long)}.
+   *
+   * @param count The number of acknowledgements that are sent at once.
+   * @param delay The longest an acknowledgement may be held back.
+   */
+  public void setAckBatching(int count, long delay)
+  {
+    ackCount = count;
+    ackDelay = delay;
+  } // End ‘setAckBatching(int, long)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * See {@link ClientInterface#setHeartBeat(int, int)}.
+   *
+   * @param canSend How often (in milliseconds) the client offers to send
+   * heart-beats, or zero for never.
+   * @param wantsReceived How often (in milliseconds) the client asks to hear
+   * from the server, or zero for never.
+   */
+  public void setHeartBeat(int canSend, int wantsReceived)
+  {
+    heartBeatOut = canSend;
+    heartBeatIn = wantsReceived;
+  } // End ‘setHeartBeat(int, int)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * See {@link ClientInterface#setFrameLimits(int, int)}.
+   *
+   * @param maxFrameSize The size of the largest frame accepted.
+   * @param maxHeapBody The size of the largest body kept on the heap.
+   * @return Whether the settings were taken.
+   */
+  public boolean setFrameLimits(int maxFrameSize, int maxHeapBody)
+  {
+
+    if (maxFrameSize <= 0 || maxHeapBody < 0)
+    {
+      Printer.printWarning("Frame limits must be positive, keeping the" +
+        " current ones.");
+      return false;
+    } // End if
+
+    this.maxFrameSize = maxFrameSize;
+    this.maxHeapBody = Math.min(maxHeapBody, maxFrameSize);
+    return true;
+
+  } // End ‘setFrameLimits(int, int)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * See {@link ClientInterface#setInbox(int, int, int)}.
+   *
+   * @param capacity The most messages held in memory.
+   * @param overflowPolicy What is done with messages that arrive while the
+   * inbox is full.
+   * @param inboxType How the inbox is kept.
+   * @return Whether the settings were taken.
+   */
+  public boolean setInbox(int capacity, int overflowPolicy, int inboxType)
+  {
+
+    if (capacity < 1)
+      Printer.printWarning("Inbox capacity must be at least 1.");
+    else if (overflowPolicy < BLOCK_WHEN_FULL ||
+      overflowPolicy > SPILL_TO_DISK)
+      Printer.printWarning("Unknown overflow policy " + overflowPolicy +
+        ", keeping the current inbox.");
+    else if (inboxType != LOCKED_INBOX && inboxType != SPSC_INBOX &&
+      inboxType != MPSC_INBOX)
+      Printer.printWarning("Unknown inbox type " + inboxType +
+        ", keeping the current inbox.");
+    else if (inboxType != LOCKED_INBOX &&
+      overflowPolicy != BLOCK_WHEN_FULL && overflowPolicy != DROP_NEWEST)
+      Printer.printWarning("A ring inbox can only block or drop the newest" +
+        " message when full, keeping the current inbox.");
+    else
+    {
+      inboxCapacity = capacity;
+      this.overflowPolicy = overflowPolicy;
+      this.inboxType = inboxType;
+      return true;
+    } // End else
+
+    return false;
+
+  } // End ‘setInbox(int, int, int)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  /**
+   * See {@link ClientInterface#setDelivery(int, int)}.
+   *
+   * @param deliveryMode Which thread calls listeners.
+   * @param maxBatch The most messages handed to a {@link BatchListener} at
+   * once.
+   * @return Whether the settings were taken.
+   */
+  public boolean setDelivery(int deliveryMode, int maxBatch)
+  {
+
+    if (deliveryMode < DIRECT_DELIVERY || deliveryMode > POOLED_DELIVERY)
+      Printer.printWarning("Unknown delivery mode " + deliveryMode + ".");
+    else if (maxBatch < 1)
+      Printer.printWarning("Delivery batches must hold at least 1 message.");
+    else
+    {
+      this.deliveryMode = deliveryMode;
+      deliveryBatch = maxBatch;
+      return true;
+    } // End else
+
+    return false;
+
+  } // End ‘setDelivery(int, int)’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+// =================================================== Accessors ===============
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getDebugLevel()
+  {
+    return debugLevel;
+  } // End ‘getDebugLevel()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getTransportMode()
+  {
+    return transportMode;
+  } // End ‘getTransportMode()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getDecoderMode()
+  {
+    return decoderMode;
+  } // End ‘getDecoderMode()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getThreadMode()
+  {
+    return threadMode;
+  } // End ‘getThreadMode()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getMetricsMode()
+  {
+    return metricsMode;
+  } // End ‘getMetricsMode()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public long getConnectTimeout()
+  {
+    return connectTimeout;
+  } // End ‘getConnectTimeout()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public long getReceiptTimeout()
+  {
+    return receiptTimeout;
+  } // End ‘getReceiptTimeout()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getWriteBatchSize()
+  {
+    return batchSize;
+  } // End ‘getWriteBatchSize()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public long getWriteLinger()
+  {
+    return linger;
+  } // End ‘getWriteLinger()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getAckCount()
+  {
+    return ackCount;
+  } // End ‘getAckCount()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public long getAckDelay()
+  {
+    return ackDelay;
+  } // End ‘getAckDelay()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getHeartBeatOut()
+  {
+    return heartBeatOut;
+  } // End ‘getHeartBeatOut()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getHeartBeatIn()
+  {
+    return heartBeatIn;
+  } // End ‘getHeartBeatIn()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getMaxFrameSize()
+  {
+    return maxFrameSize;
+  } // End ‘getMaxFrameSize()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getMaxHeapBody()
+  {
+    return maxHeapBody;
+  } // End ‘getMaxHeapBody()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getInboxCapacity()
+  {
+    return inboxCapacity;
+  } // End ‘getInboxCapacity()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getOverflowPolicy()
+  {
+    return overflowPolicy;
+  } // End ‘getOverflowPolicy()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getInboxType()
+  {
+    return inboxType;
+  } // End ‘getInboxType()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getDeliveryMode()
+  {
+    return deliveryMode;
+  } // End ‘getDeliveryMode()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+  public int getDeliveryBatch()
+  {
+    return deliveryBatch;
+  } // End ‘getDeliveryBatch()’ Method
+
+// ------------------------------------------ ClientConfig Class ---------------
+
+} // End ‘ClientConfig’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,2165 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>ClientInterface</code> sets up a connection to a
+ * <a href="http://stomp.github.io/stomp-specification-1.1.html">STOMP</a>
+ * server in order to communicate with the server. This should be compatible
+ * with version 1.1 of the STOMP protocol.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Déardaoin, 21ú Aibreán 2016
+ */
+public class ClientInterface extends TransportClient implements Constants
+{
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /** How long to wait for a <code>CONNECTED</code> or <code>RECEIPT</code>
+   * frame by default (in milliseconds). */
+  public static final long DEFAULT_TIMEOUT = 10000;
+  /** How many acknowledgements are held back at most, by default. */
+  public static final int DEFAULT_ACK_COUNT = 64;
+  /** How long an acknowledgement is held back at most by default
+   * (in milliseconds). */
+  public static final long DEFAULT_ACK_DELAY = 100;
+  /** How often heart-beats are offered and asked for by default
+   * (in milliseconds). */
+  public static final int DEFAULT_HEART_BEAT = 10000;
+  /** How many messages are handed to a listener at once at most, by
+   * default. */
+  public static final int DEFAULT_DELIVERY_BATCH = 64;
+  /** The size of the largest frame accepted by default (256MiB). */
+  public static final int DEFAULT_MAX_FRAME_SIZE = 256 << 20;
+  /** The size of the largest body kept on the heap by default (1MiB). */
+  public static final int DEFAULT_MAX_HEAP_BODY = 1 << 20;
+
+  // Stands in for the receipt of every frame sent without asking for one.
+  private static final CompletableFuture<Frame> SENT =
+    CompletableFuture.completedFuture(null);
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private int port;
+  private volatile int streamed; // Subscriptions with a StreamListener.
+  private AtomicInteger sequenceNumber;
+  private ClientConfig config;
+  private Log log;
+  private Transport transport;
+  private volatile WritePipeline pipeline;
+  private volatile HeartBeat heartBeat;
+  private volatile ClientMetrics metrics;
+  private volatile boolean isSTOMPConnected, disconnectIssued, errorReceived;
+  private volatile CompletableFuture<Boolean> connection;
+  private ConcurrentHashMap<String, CompletableFuture<Frame>> receipts;
+  private ConcurrentHashMap<String, Subscription> subscriptions;
+  private String address;
+  private volatile String topic, id;
+  private Inbox inbox;
+  private Notifier notifier;
+  private MessageListener messageListener;
+  private BatchListener batchListener;
+  private Dispatcher dispatcher;
+  private Executor executor, customExecutor;
+  private ExecutorService dedicatedExecutor;
+  private ArrayList<Dispatcher> waiting; // Only for the receiving thread.
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sets up and initialises a new STOMP client, with every other setting at
+   * its default.
+   *
+   * @param address The server address that this client
+   * should attempt to connect to. This can be a host name or an IP address.
+   * @param port The port number that this client should attempt to connect to.
+   * @param debugLevel The verbosity level of messages displayed by this client.
+   * @param notifier The <code>Notifier</code> to be notified when the client
+   * receives a message (can be <code>null</code>).
+   */
+  public ClientInterface(
+    String address, int port, int debugLevel, Notifier notifier)
+  {
+    this(address, port, levelled(debugLevel), notifier);
+  } // End ‘ClientInterface(String, int, int, Notifier)’ Constructor
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sets up and initialises a new STOMP client.
+   *
+   * @param address The server address that this client
+   * should attempt to connect to. This can be a host name or an IP address.
+   * @param port The port number that this client should attempt to connect to.
+   * @param config How the client is to behave. The client keeps a copy, so
+   * the same configuration may be given to any number of clients.
+   * @param notifier The <code>Notifier</code> to be notified when the client
+   * receives a message (can be <code>null</code>).
+   */
+  public ClientInterface(
+    String address, int port, ClientConfig config, Notifier notifier)
+  {
+
+    this.address = address;
+    this.port = port;
+    this.config = new ClientConfig(config);
+    this.notifier = notifier;
+
+    log = new Log(config.getDebugLevel());
+    sequenceNumber = new AtomicInteger(1);
+    transport = null;
+    pipeline = null;
+    heartBeat = null;
+    metrics = null;
+    isSTOMPConnected = false;
+    disconnectIssued = false;
+    errorReceived = false;
+    connection = null;
+    receipts = new ConcurrentHashMap<String, CompletableFuture<Frame>>();
+    subscriptions = new ConcurrentHashMap<String, Subscription>();
+    topic = null;
+    id = "strampáil";
+    inbox = newInbox();
+    messageListener = null;
+    batchListener = null;
+    dispatcher = null;
+    streamed = 0;
+    executor = null;
+    customExecutor = null;
+    dedicatedExecutor = null;
+    waiting = new ArrayList<Dispatcher>();
+
+  } // End ‘ClientInterface(String, int, ClientConfig, Notifier)’ Constructor
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Instructs the client to initiate a TCP handshake with the server.
+   * This must be performed before any STOMP messages can be passed.
+   *
+   * @return Whether the TCP handshake concluded successfully or not.
+   */
+  public boolean handshake()
+  {
+
+    boolean success = false;
+
+    if (transport != null)
+    {
+      log.printWarning("TCP connection already established!");
+      return success;
+    } // End if
+
+    log.printInfo(
+      "Winding-up client and handshaking with server on port " + port);
+
+    // Before the transport, which asks for somewhere to count parse times.
+    if (config.getMetricsMode() != NO_METRICS)
+      metrics = new ClientMetrics(this);
+
+    try
+    {
+      if (config.getTransportMode() == NIO_TRANSPORT)
+        transport = new NioTransport(address, port, this);
+      else
+        transport = new BlockingTransport(address, port, this,
+          config.getDecoderMode(), config.getThreadMode());
+      pipeline = new WritePipeline(transport,
+        config.getWriteBatchSize(), config.getWriteLinger(),
+        config.getTransportMode() == NIO_TRANSPORT ? null :
+        WritePipeline.sharedWriters(config.getThreadMode()));
+      inbox.attach(transport);
+      executor = startDelivery();
+      dispatcher = dispatcherFor(messageListener, batchListener);
+      heartBeat = new HeartBeat(pipeline, transport, log);
+      if (config.getMetricsMode() == JMX_METRICS)
+        metrics.register(address, port, log);
+      success = true;
+    } // End try
+
+    catch (UnknownHostException uhe)
+    {
+      log.printError("Address ‘" + address + "’ not recognised.");
+    } // End ‘UnknownHostException’ catch
+
+    catch (IllegalArgumentException iae)
+    {
+      log.printError("Please specify a port number between 0 and 65535");
+    } // End ‘IllegalArgumentException’ catch
+
+    catch (IOException ioe)
+    {
+      log.printError("Cannot connect to " + address + ":" + port + "." +
+        " Check that there’s a server running there and try again.");
+    } // End ‘IOException’ catch
+
+    return success;
+
+  } // End ‘handshake()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sets how long {@link #connect(String)} and {@link #stomp(String)} wait
+   * for the server to answer with a <code>CONNECTED</code> frame.
+   *
+   * @param milliseconds The timeout (defaults to {@link #DEFAULT_TIMEOUT}).
+   */
+  public void setConnectTimeout(long milliseconds)
+  {
+    config.setConnectTimeout(milliseconds);
+  } // End ‘setConnectTimeout(long)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sets how long a frame sent with a receipt request waits for the matching
+   * <code>RECEIPT</code> frame before giving up on it.
+   *
+   * @param milliseconds The timeout (defaults to {@link #DEFAULT_TIMEOUT}).
+   */
+  public void setReceiptTimeout(long milliseconds)
+  {
+    config.setReceiptTimeout(milliseconds);
+  } // End ‘setReceiptTimeout(long)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Limits how many messages the retrieval system holds, and sets what is
+   * done with messages that arrive while it is full. By default it is
+   * unbounded. This must be done before {@link #handshake()}.
+   * <p>
+   * Note that with {@link Constants#BLOCK_WHEN_FULL} nothing else arrives
+   * from the server either (receipts included) until messages have been
+   * retrieved, so a full inbox should not be left waiting on a receipt.
+   *
+   * @param capacity The most messages held in memory.
+   * @param overflowPolicy One of {@link Constants#BLOCK_WHEN_FULL},
+   * {@link Constants#DROP_OLDEST}, {@link Constants#DROP_NEWEST} or
+   * {@link Constants#SPILL_TO_DISK}.
+   * @see #getInboxSize()
+   * @see #setInbox(int, int, int)
+   */
+  public void setInbox(int capacity, int overflowPolicy)
+  {
+    setInbox(capacity, overflowPolicy, LOCKED_INBOX);
+  } // End ‘setInbox(int, int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * As {@link #setInbox(int, int)}, but also chooses how the inbox is kept.
+   * A lock-free ring allocates nothing per message and keeps the receiving
+   * thread and the application out of each other's way, but only one thread
+   * may retrieve messages from it at a time, its capacity is rounded up to a
+   * power of two, and it can only block or drop the newest message when
+   * full.
+   *
+   * @param capacity The most messages held in memory.
+   * @param overflowPolicy As for {@link #setInbox(int, int)}.
+   * @param inboxType One of {@link Constants#LOCKED_INBOX},
+   * {@link Constants#SPSC_INBOX} or {@link Constants#MPSC_INBOX}.
+   * @see #retrieveFrames(Collection, int)
+   */
+  public void setInbox(int capacity, int overflowPolicy, int inboxType)
+  {
+
+    if (transport != null)
+      log.printWarning("The inbox must be set before the handshake.");
+    else if (config.setInbox(capacity, overflowPolicy, inboxType))
+      inbox = newInbox();
+
+  } // End ‘setInbox(int, int, int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Hands messages that would otherwise go to the retrieval system (and
+   * {@link Notifier}) to a listener instead, one at a time. This must be
+   * done before {@link #handshake()}.
+   *
+   * @param listener The listener (<code>null</code> to use the retrieval
+   * system).
+   * @see #setDelivery(int, int)
+   */
+  public void setMessageListener(MessageListener listener)
+  {
+
+    if (transport != null)
+      log.printWarning("Listeners must be set before the handshake.");
+    else
+    {
+      messageListener = listener;
+      batchListener = null;
+    } // End else
+
+  } // End ‘setMessageListener(MessageListener)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Hands messages that would otherwise go to the retrieval system (and
+   * {@link Notifier}) to a listener instead, in batches. This must be done
+   * before {@link #handshake()}.
+   *
+   * @param listener The listener (<code>null</code> to use the retrieval
+   * system).
+   * @see #setDelivery(int, int)
+   */
+  public void setBatchListener(BatchListener listener)
+  {
+
+    if (transport != null)
+      log.printWarning("Listeners must be set before the handshake.");
+    else
+    {
+      batchListener = listener;
+      messageListener = null;
+    } // End else
+
+  } // End ‘setBatchListener(BatchListener)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sets which thread calls listeners. By default
+   * ({@link Constants#DIRECT_DELIVERY}) it is the thread that receives
+   * messages, which saves a hand-over but holds up everything else on the
+   * connection while a listener runs. Otherwise, messages are queued for
+   * each listener and handed over on a thread of this client's own
+   * ({@link Constants#DEDICATED_DELIVERY}) or on a pool shared by every
+   * client ({@link Constants#POOLED_DELIVERY}); each listener still sees its
+   * messages in order, one batch at a time. A listener that falls too far
+   * behind holds back the whole connection until it catches up. This must be
+   * done before {@link #handshake()}.
+   *
+   * @param deliveryMode One of {@link Constants#DIRECT_DELIVERY},
+   * {@link Constants#DEDICATED_DELIVERY} or
+   * {@link Constants#POOLED_DELIVERY}.
+   * @param maxBatch The most messages handed to a {@link BatchListener} at
+   * once (defaults to {@link #DEFAULT_DELIVERY_BATCH}).
+   */
+  public void setDelivery(int deliveryMode, int maxBatch)
+  {
+
+    if (transport != null)
+      log.printWarning("Delivery must be set before the handshake.");
+    else if (config.setDelivery(deliveryMode, maxBatch))
+      customExecutor = null;
+
+  } // End ‘setDelivery(int, int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * As {@link #setDelivery(int, int)}, but calls listeners on threads of the
+   * application's choosing. The executor is not shut down by this client.
+   *
+   * @param executor What runs listeners.
+   * @param maxBatch The most messages handed to a {@link BatchListener} at
+   * once.
+   */
+  public void setDelivery(Executor executor, int maxBatch)
+  {
+
+    if (transport != null)
+      log.printWarning("Delivery must be set before the handshake.");
+    else if (executor == null)
+      log.printWarning("No executor given.");
+    else if (config.setDelivery(config.getDeliveryMode(), maxBatch))
+      customExecutor = executor;
+
+  } // End ‘setDelivery(Executor, int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sets the heart-beats asked for when connecting. The intervals actually
+   * kept are agreed with the server in its <code>CONNECTED</code> frame: the
+   * client sends a heart-beat whenever it has had nothing else to send for
+   * the agreed interval, and gives up on the connection once nothing has
+   * been heard from the server for half as long again as the interval agreed
+   * for the other direction. This only takes effect for later connections.
+   *
+   * @param canSend How often (in milliseconds) the client offers to send
+   * heart-beats, or zero for never (defaults to {@link #DEFAULT_HEART_BEAT}).
+   * @param wantsReceived How often (in milliseconds) the client asks to hear
+   * from the server, or zero for never (defaults to
+   * {@link #DEFAULT_HEART_BEAT}).
+   */
+  public void setHeartBeat(int canSend, int wantsReceived)
+  {
+    config.setHeartBeat(canSend, wantsReceived);
+  } // End ‘setHeartBeat(int, int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Lets outgoing frames be held back briefly and written in batches, trading
+   * a little latency for far fewer system calls when publishing at a high
+   * rate. A batch goes out once it reaches <code>batchSize</code> bytes, once
+   * its first frame has waited <code>linger</code> milliseconds, when
+   * {@link #flush()} is called, or when the client needs a reply from the
+   * server. Frames are never reordered. By default batching is off. This only
+   * takes effect for connections made by later calls to {@link #handshake()}.
+   *
+   * @param batchSize The number of bytes at which a batch is written at once.
+   * @param linger The longest a frame may wait for others to join its batch
+   * (zero turns batching off).
+   */
+  public void setWriteBatching(int batchSize, long linger)
+  {
+    config.setWriteBatching(batchSize, linger);
+  } // End ‘setWriteBatching(int, long)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sets how acknowledgements are batched up for subscriptions that are not
+   * in {@link Constants#AUTO_ACK} mode. They are sent once
+   * <code>count</code> messages have been acknowledged, once the oldest of
+   * them has waited <code>delay</code> milliseconds, or before the
+   * subscription or connection is closed. This only takes effect for later
+   * subscriptions.
+   *
+   * @param count The number of acknowledgements that are sent at once
+   * (defaults to {@link #DEFAULT_ACK_COUNT}).
+   * @param delay The longest an acknowledgement may be held back (defaults
+   * to {@link #DEFAULT_ACK_DELAY}; zero sends each one at once).
+   * @see #ack(Frame)
+   */
+  public void setAckBatching(int count, long delay)
+  {
+    config.setAckBatching(count, delay);
+  } // End ‘setAckBatching(int, long)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Writes out any frames held back by write batching straight away.
+   *
+   * @see #setWriteBatching(int, long)
+   */
+  public void flush()
+  {
+
+    if (!isTCPConnected())
+      log.printTCPError("queued");
+    else
+      try
+      {
+        pipeline.flush();
+      } // End try
+
+      catch (IOException ioe)
+      {
+        log.printIOError("queued");
+      } // End ‘IOException’ catch
+
+  } // End ‘flush()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Selects how the client talks to the server. This only takes effect for
+   * connections made by later calls to {@link #handshake()}.
+   *
+   * @param transportMode Either {@link Constants#BLOCKING_TRANSPORT}
+   * (the default), which starts a listener thread for this connection, or
+   * {@link Constants#NIO_TRANSPORT}, which shares a small pool of event loop
+   * threads with every other client in the JVM.
+   */
+  public void setTransportMode(int transportMode)
+  {
+    config.setTransportMode(transportMode);
+  } // End ‘setTransportMode(int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Selects how incoming frames are parsed by the blocking transport. The
+   * NIO transport always uses the buffered decoder. This only takes effect
+   * for connections made by later calls to {@link #handshake()}.
+   *
+   * @param decoderMode Either {@link Constants#BUFFERED_DECODER} (the default)
+   * or {@link Constants#STREAMED_DECODER}.
+   */
+  public void setDecoderMode(int decoderMode)
+  {
+    config.setDecoderMode(decoderMode);
+  } // End ‘setDecoderMode(int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sets how large incoming frames may be. A frame larger than
+   * <code>maxFrameSize</code> bytes is refused, and the connection dropped,
+   * as there is no telling where the next frame starts. A body larger than
+   * <code>maxHeapBody</code> bytes is not kept on the heap: it is written to
+   * a temporary file as it arrives, and the frame's body is then a view of
+   * that file mapped into memory. Bodies read through a
+   * {@link StreamListener} straight off the socket are never held, and are
+   * bound by neither limit. This only takes effect for connections made by
+   * later calls to {@link #handshake()}.
+   *
+   * @param maxFrameSize The size of the largest frame accepted (defaults to
+   * {@link #DEFAULT_MAX_FRAME_SIZE}).
+   * @param maxHeapBody The size of the largest body kept on the heap
+   * (defaults to {@link #DEFAULT_MAX_HEAP_BODY}).
+   * @see Frame#getBody()
+   */
+  public void setFrameLimits(int maxFrameSize, int maxHeapBody)
+  {
+    config.setFrameLimits(maxFrameSize, maxHeapBody);
+  } // End ‘setFrameLimits(int, int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Selects the kind of thread that receives frames on the blocking
+   * transport and that calls listeners when they are not called directly
+   * (see {@link #setDelivery(int, int)}). Virtual threads let blocking-style
+   * clients run by the ten thousand: a receiver costs next to nothing while
+   * waiting on its socket, and pooled delivery starts a virtual thread per
+   * batch rather than sharing a few platform threads. The NIO transport's
+   * event loops always run on platform threads. This only takes effect for
+   * connections made by later calls to {@link #handshake()}.
+   *
+   * @param threadMode Either {@link Constants#PLATFORM_THREADS} (the
+   * default) or {@link Constants#VIRTUAL_THREADS} (Java 21 onwards).
+   */
+  public void setThreadMode(int threadMode)
+  {
+    config.setThreadMode(threadMode);
+  } // End ‘setThreadMode(int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Selects whether this client keeps metrics: frames and bytes sent and
+   * received by command, receipt round-trip times, how long frames take to
+   * decode and to be handled, and the state of the inbox. Keeping them costs
+   * a few striped counters and two clock readings per frame, so they are off
+   * by default. This only takes effect for connections made by later calls
+   * to {@link #handshake()}.
+   *
+   * @param metricsMode {@link Constants#NO_METRICS} (the default),
+   * {@link Constants#POLLED_METRICS} to read them through
+   * {@link #getMetrics()}, or {@link Constants#JMX_METRICS} to publish them
+   * over JMX as well (see {@link ClientMetricsMXBean}).
+   */
+  public void setMetricsMode(int metricsMode)
+  {
+    config.setMetricsMode(metricsMode);
+  } // End ‘setMetricsMode(int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sets how much this client prints. Other clients in the same JVM are
+   * unaffected.
+   *
+   * @param debugLevel One of {@link Constants#DEBUG}, {@link Constants#INFO},
+   * {@link Constants#WARNING}, {@link Constants#ERROR} or
+   * {@link Constants#NONE}.
+   * @see ClientConfig#setDebugLevel(int)
+   */
+  public void setDebugLevel(int debugLevel)
+  {
+    config.setDebugLevel(debugLevel);
+    log.setDebugLevel(debugLevel);
+  } // End ‘setDebugLevel(int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Instructs the client to disconnect from the server and shut itself down.
+   * Other clients in the same JVM are unaffected.
+   */
+  public void close()
+  {
+
+    if (isTCPConnected())
+    {
+      log.printInfo("Disconnecting from server.");
+
+      if (!subscriptions.isEmpty() && isSTOMPConnected)
+      {
+        log.printWarning("Still subscribed to " + subscriptions.size() +
+          " destination(s)!");
+        for (String subscriptionID : subscriptions.keySet())
+          unsubscribe(subscriptionID, false);
+      } // End if
+
+      if (isSTOMPConnected)
+      {
+        log.printWarning("STOMP connection is still active!");
+        disconnect();
+      } // End if
+
+      heartBeat.stop();
+
+      try
+      {
+        pipeline.flush();
+        transport.close();
+      } // End try
+
+      catch (IOException ioe)
+      {
+        log.printError("I/O error when disconnecting from server.");
+      } // End ‘IOException’ catch
+
+    } // End if
+    else
+      log.printWarning("Connection already closed!");
+
+    if (transport != null)
+      transport.awaitClosed();
+    if (pipeline != null)
+      pipeline.close();
+
+    if (dedicatedExecutor != null)
+      dedicatedExecutor.shutdown(); // Once everything queued is delivered.
+
+    if (metrics != null)
+      metrics.unregister();
+
+  } // End ‘close()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Retrieves the first message from the repository (if any).
+   *
+   * @return The message (<code>null</code> if no messages found).
+   * @see #retrieveFrame()
+   */
+  public String retrieveMessage()
+  {
+    Frame frame = inbox.poll();
+    return frame == null ? null : frame.getBodyAsString();
+  } // End ‘retrieveMessage()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Retrieves the first <code>MESSAGE</code> frame from the repository
+   * (if any). Unlike {@link #retrieveMessage()}, the body is not decoded, so
+   * binary payloads can be read straight from {@link Frame#getBody()}.
+   *
+   * @return The frame (<code>null</code> if no messages found).
+   */
+  public Frame retrieveFrame()
+  {
+    return inbox.poll();
+  } // End ‘retrieveFrame()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Retrieves waiting messages, oldest first, in one go.
+   *
+   * @param into Where the messages are added.
+   * @param max The most messages to retrieve (not negative).
+   * @return How many messages were retrieved.
+   * @see #retrieveFrames(Collection, int)
+   */
+  public int retrieveMessages(Collection<String> into, int max)
+  {
+
+    if (max < 0)
+    {
+      log.printWarning("Cannot retrieve a negative number of messages.");
+      return 0;
+    } // End if
+
+    int count = 0;
+    Frame frame = count < max ? inbox.poll() : null;
+    while (frame != null)
+    {
+      into.add(frame.getBodyAsString());
+      count++;
+      frame = count < max ? inbox.poll() : null;
+    } // End while
+
+    return count;
+
+  } // End ‘retrieveMessages(Collection<String>, int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Retrieves waiting <code>MESSAGE</code> frames, oldest first, in one go.
+   * This is cheaper than calling {@link #retrieveFrame()} for each, since
+   * the inbox is only visited once.
+   *
+   * @param into Where the frames are added.
+   * @param max The most frames to retrieve (not negative).
+   * @return How many frames were retrieved.
+   */
+  public int retrieveFrames(Collection<Frame> into, int max)
+  {
+
+    if (max < 0)
+    {
+      log.printWarning("Cannot retrieve a negative number of messages.");
+      return 0;
+    } // End if
+
+    return inbox.drain(into, max);
+
+  } // End ‘retrieveFrames(Collection<Frame>, int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * @return The number of messages waiting in the repository (including any
+   * spilled to disk).
+   */
+  public int getInboxSize()
+  {
+    return inbox.size();
+  } // End ‘getInboxSize()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * @return The number of messages dropped because the repository was full.
+   * @see #setInbox(int, int)
+   */
+  public long getDroppedCount()
+  {
+    return inbox.getDropped();
+  } // End ‘getDroppedCount()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * @return The number of messages spilled to disk because the repository
+   * was full.
+   * @see #setInbox(int, int)
+   */
+  public long getSpilledCount()
+  {
+    return inbox.getSpilled();
+  } // End ‘getSpilledCount()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * @return A copy of this client's metrics as they stand
+   * (<code>null</code> if none are kept).
+   * @see #setMetricsMode(int)
+   */
+  public MetricsSnapshot getMetrics()
+  {
+    ClientMetrics kept = metrics;
+    return kept == null ? null : kept.snapshot();
+  } // End ‘getMetrics()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+// ========================================= STOMP Frame Methods ===============
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a STOMP 1.0 <code>CONNECT</code> frame to the server.
+   *
+   * @param hostName The name of the host this
+   * client should attempt to connect to.
+   * @param login The login name to send to the server
+   * (can be <code>null</code> if no login required).
+   * @param password The password to be sent along with the login name
+   * (can be <code>null</code> if no login required).
+   * @return Whether the connection was successfully established or not.
+   * @see #stomp(String, String, String)
+   */
+  public boolean connect(String hostName, String login, String password)
+  {
+    return genericConnect("CONNECT", hostName, login, password);
+  } // End ‘connect(String, String, String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a STOMP 1.0 <code>CONNECT</code> frame to the server without any
+   * login details.
+   *
+   * @param hostName The name of the host this
+   * client should attempt to connect to.
+   * @return Whether the connection was successfully established or not.
+   * @see #connect(String, String, String)
+   */
+  public boolean connect(String hostName)
+  {
+    return connect(hostName, null, null);
+  } // End ‘connect(String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a STOMP 1.1 <code>STOMP</code>
+   * (formerly <code>CONNECT</code>) frame to the server.
+   *
+   * @param hostName The name of the host this
+   * client should attempt to connect to.
+   * @param login The login name to send to the server
+   * (can be <code>null</code> if no login required).
+   * @param password The password to be sent along with the login name
+   * (can be <code>null</code> if no login required).
+   * @return Whether the connection was successfully established or not.
+   */
+  public boolean stomp(String hostName, String login, String password)
+  {
+    return genericConnect("STOMP", hostName, login, password);
+  } // End ‘stomp(String, String, String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a STOMP 1.1 <code>STOMP</code>
+   * (formerly <code>CONNECT</code>) frame to the server without any
+   * login details.
+   *
+   * @param hostName The name of the host this
+   * client should attempt to connect to.
+   * @return Whether the connection was successfully established or not.
+   * @see #stomp(String, String, String)
+   */
+  public boolean stomp(String hostName)
+  {
+    return stomp(hostName, null, null);
+  } // End ‘stomp(String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private boolean genericConnect(
+    String command, String hostName, String login, String password)
+  {
+
+    boolean success = false;
+    if (hostName == null || hostName.equals(""))
+      log.printError("‘" + hostName + "’ is not a valid host name.");
+    else if (!isTCPConnected())
+      log.printTCPError(command);
+    else if (disconnectIssued)
+      log.printDisconnectError();
+    else if (isSTOMPConnected)
+      log.printWarning("STOMP connection already opened!");
+    else
+    {
+
+      ByteBuffer stompFrame = FrameEncoder.connect(command, hostName, login,
+        password, config.getHeartBeatOut(), config.getHeartBeatIn());
+
+      connection = new CompletableFuture<Boolean>();
+
+      try
+      {
+
+        log.printSendFrame(stompFrame);
+        countOut(command, stompFrame);
+        pipeline.write(stompFrame, true);
+
+        success = connection.get(
+          config.getConnectTimeout(), TimeUnit.MILLISECONDS);
+
+      } // End try
+
+      catch (IOException ioe)
+      {
+        log.printIOError(command);
+      } // End ‘IOException’ catch
+
+      catch (TimeoutException te)
+      {
+        log.printError("No response to " + command + " within " +
+          config.getConnectTimeout() + "ms.");
+      } // End ‘TimeoutException’ catch
+
+      catch (ExecutionException ee)
+      {
+        log.printError(command + " failed: " + ee.getCause());
+      } // End ‘ExecutionException’ catch
+
+      catch (InterruptedException ie)
+      {
+        Thread.currentThread().interrupt();
+      } // End ‘InterruptedException’ catch
+
+    } // End else
+
+    return success;
+
+  } // End ‘genericConnect(String, String, String, String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a <code>DISCONNECT</code> frame to the server.
+   */
+  public void disconnect()
+  {
+
+    if (!isTCPConnected())
+      log.printTCPError("DISCONNECT");
+    else if (disconnectIssued)
+      log.printDisconnectError();
+    else if (!isSTOMPConnected)
+      log.printWarning("STOMP connection already closed!");
+    else
+    {
+
+      for (Subscription subscription : subscriptions.values())
+      {
+        flushAcks(subscription);
+        if (subscription.getPublisher() != null)
+          subscription.getPublisher().complete(null); // Lets the receipt in.
+      } // End for
+
+      String receiptID = "disconnect-" + sequenceNumber.getAndIncrement();
+      CompletableFuture<Frame> pending = transmit("DISCONNECT",
+        FrameEncoder.disconnect(receiptID), receiptID);
+
+      if (pending != null)
+      {
+        waitForReceipt(receiptID, pending);
+        isSTOMPConnected = false;
+        disconnectIssued = true;
+      } // End if
+
+    } // End else
+
+  } // End ‘disconnect()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a <code>SUBSCRIBE</code> frame to the server.
+   *
+   * @param topic The destination topic to subscribe to.
+   * @param receipt Tags whether the server should acknowledge receipt of the
+   * subscription request.
+   * @see #subscribe(String, String, boolean)
+   */
+  public void subscribe(String topic, boolean receipt)
+  {
+    subscribe(topic, null, receipt);
+  } // End ‘subscribe(String, boolean)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a <code>SUBSCRIBE</code> frame to the server. Messages for this
+   * subscription go to the retrieval system.
+   *
+   * @param topic The destination topic to subscribe to.
+   * @param id The id of the subscription, which must not already be in use
+   * on this connection. If blank or <code>null</code>, a default will be
+   * used.
+   * @param receipt Tags whether the server should acknowledge receipt of the
+   * subscription request.
+   * @see #subscribe(String, String, MessageListener, boolean)
+   */
+  public void subscribe(String topic, String id, boolean receipt)
+  {
+    subscribe(topic, id, null, receipt);
+  } // End ‘subscribe(String, String, boolean)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a <code>SUBSCRIBE</code> frame to the server. Any number of
+   * subscriptions may share a connection, so long as each has its own id;
+   * the first one made is the one {@link #send(String, boolean)} and
+   * {@link #unsubscribe(boolean)} act on.
+   *
+   * @param topic The destination topic to subscribe to.
+   * @param id The id of the subscription, which must not already be in use
+   * on this connection. If blank or <code>null</code>, a default will be
+   * used.
+   * @param listener Handed every message for this subscription as it
+   * arrives (<code>null</code> to use the retrieval system instead).
+   * @param receipt Tags whether the server should acknowledge receipt of the
+   * subscription request.
+   */
+  public void subscribe(
+    String topic, String id, MessageListener listener, boolean receipt)
+  {
+    subscribe(topic, id, AUTO_ACK, listener, receipt);
+  } // End ‘subscribe(String, String, MessageListener, boolean)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a <code>SUBSCRIBE</code> frame to the server, asking for messages
+   * to be acknowledged as set out by <code>ackMode</code>. Unless this is
+   * {@link Constants#AUTO_ACK}, the server does not consider a message
+   * delivered until it has been passed to {@link #ack(Frame)}, and may
+   * deliver it again otherwise.
+   *
+   * @param topic The destination topic to subscribe to.
+   * @param id The id of the subscription, which must not already be in use
+   * on this connection. If blank or <code>null</code>, a default will be
+   * used.
+   * @param ackMode One of {@link Constants#AUTO_ACK},
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}.
+   * @param listener Handed every message for this subscription as it
+   * arrives (<code>null</code> to use the retrieval system instead).
+   * @param receipt Tags whether the server should acknowledge receipt of the
+   * subscription request.
+   * @see #setAckBatching(int, long)
+   */
+  public void subscribe(String topic, String id, int ackMode,
+    MessageListener listener, boolean receipt)
+  {
+    subscribe(new Subscription(
+      topic, ackMode, dispatcherFor(listener, null)), id, receipt);
+  } // End ‘subscribe(String, String, int, MessageListener, boolean)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * As {@link #subscribe(String, String, int, MessageListener, boolean)},
+   * but hands messages over in batches.
+   *
+   * @param topic The destination topic to subscribe to.
+   * @param id The id of the subscription, which must not already be in use
+   * on this connection. If blank or <code>null</code>, a default will be
+   * used.
+   * @param ackMode One of {@link Constants#AUTO_ACK},
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}.
+   * @param listener Handed the messages for this subscription, a batch at a
+   * time.
+   * @param receipt Tags whether the server should acknowledge receipt of the
+   * subscription request.
+   * @see #setDelivery(int, int)
+   */
+  public void subscribeBatched(String topic, String id, int ackMode,
+    BatchListener listener, boolean receipt)
+  {
+    subscribe(new Subscription(
+      topic, ackMode, dispatcherFor(null, listener)), id, receipt);
+  } // End ‘subscribeBatched(String, String, int, BatchListener, boolean)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * As {@link #subscribe(String, String, int, MessageListener, boolean)},
+   * but hands each message over as soon as its headers arrive, for the
+   * listener to read the body off the socket itself. However large a body
+   * is, it is never held in full.
+   * <p>
+   * This is only so with the blocking transport, where the listener is
+   * always called on the receiving thread, whatever
+   * {@link #setDelivery(int, int)} says, and holds up every other frame
+   * until it returns. With the non-blocking transport, each body is
+   * gathered first (see {@link #setFrameLimits(int, int)}), and the
+   * listener called as any other would be.
+   *
+   * @param topic The destination topic to subscribe to.
+   * @param id The id of the subscription, which must not already be in use
+   * on this connection. If blank or <code>null</code>, a default will be
+   * used.
+   * @param ackMode One of {@link Constants#AUTO_ACK},
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}.
+   * @param listener Handed every message for this subscription, with its
+   * body to read.
+   * @param receipt Tags whether the server should acknowledge receipt of the
+   * subscription request.
+   */
+  public void subscribeStreamed(String topic, String id, int ackMode,
+    StreamListener listener, boolean receipt)
+  {
+    subscribe(new Subscription(topic, ackMode,
+      dispatcherFor(gathered(listener), null), listener), id, receipt);
+  } // End ‘subscribeStreamed(String, String, int, StreamListener, boolean)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a <code>SUBSCRIBE</code> frame to the server without waiting for
+   * the server to acknowledge it.
+   *
+   * @param topic The destination topic to subscribe to.
+   * @param id The name this client should reveal itself as.
+   * If blank or <code>null</code>, a default will be used.
+   * @return A future completed with the server's <code>RECEIPT</code> frame,
+   * or completed exceptionally if the frame could not be sent, the receipt
+   * timed out or the connection was lost first.
+   * @see #subscribe(String, String, boolean)
+   */
+  public CompletableFuture<Frame> subscribeAsync(String topic, String id)
+  {
+    return subscribeAsync(topic, id, null);
+  } // End ‘subscribeAsync(String, String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a <code>SUBSCRIBE</code> frame to the server without waiting for
+   * the server to acknowledge it.
+   *
+   * @param topic The destination topic to subscribe to.
+   * @param id The id of the subscription, which must not already be in use
+   * on this connection. If blank or <code>null</code>, a default will be
+   * used.
+   * @param listener Handed every message for this subscription as it
+   * arrives (<code>null</code> to use the retrieval system instead).
+   * @return A future completed with the server's <code>RECEIPT</code> frame,
+   * or completed exceptionally if the frame could not be sent, the receipt
+   * timed out or the connection was lost first.
+   * @see #subscribe(String, String, MessageListener, boolean)
+   */
+  public CompletableFuture<Frame> subscribeAsync(
+    String topic, String id, MessageListener listener)
+  {
+    return subscribeAsync(topic, id, AUTO_ACK, listener);
+  } // End ‘subscribeAsync(String, String, MessageListener)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a <code>SUBSCRIBE</code> frame to the server without waiting for
+   * the server to acknowledge it.
+   *
+   * @param topic The destination topic to subscribe to.
+   * @param id The id of the subscription, which must not already be in use
+   * on this connection. If blank or <code>null</code>, a default will be
+   * used.
+   * @param ackMode One of {@link Constants#AUTO_ACK},
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}.
+   * @param listener Handed every message for this subscription as it
+   * arrives (<code>null</code> to use the retrieval system instead).
+   * @return A future completed with the server's <code>RECEIPT</code> frame,
+   * or completed exceptionally if the frame could not be sent, the receipt
+   * timed out or the connection was lost first.
+   * @see #subscribe(String, String, int, MessageListener, boolean)
+   */
+  public CompletableFuture<Frame> subscribeAsync(
+    String topic, String id, int ackMode, MessageListener listener)
+  {
+    return subscribeAsync(new Subscription(
+      topic, ackMode, dispatcherFor(listener, null)), id);
+  } // End ‘subscribeAsync(String, String, int, MessageListener)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * As {@link #subscribeAsync(String, String, int, MessageListener)}, but
+   * hands messages over in batches.
+   *
+   * @param topic The destination topic to subscribe to.
+   * @param id The id of the subscription, which must not already be in use
+   * on this connection. If blank or <code>null</code>, a default will be
+   * used.
+   * @param ackMode One of {@link Constants#AUTO_ACK},
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}.
+   * @param listener Handed the messages for this subscription, a batch at a
+   * time.
+   * @return A future completed with the server's <code>RECEIPT</code> frame,
+   * or completed exceptionally if the frame could not be sent, the receipt
+   * timed out or the connection was lost first.
+   * @see #setDelivery(int, int)
+   */
+  public CompletableFuture<Frame> subscribeBatchedAsync(
+    String topic, String id, int ackMode, BatchListener listener)
+  {
+    return subscribeAsync(new Subscription(
+      topic, ackMode, dispatcherFor(null, listener)), id);
+  } // End ‘subscribeBatchedAsync(String, String, int, BatchListener)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Prepares a subscription whose messages are published to a
+   * {@link Flow.Subscriber}, as fast as it asks for them and no faster. The
+   * <code>SUBSCRIBE</code> frame is sent once the subscriber subscribes
+   * (only one may), and the <code>UNSUBSCRIBE</code> frame if it cancels.
+   * <p>
+   * While the subscriber has asked for nothing more, reading from the
+   * server is suspended, so that TCP flow control holds the server back.
+   * This holds back every other frame from the server as well, including
+   * messages for other subscriptions and any <code>RECEIPT</code> frames
+   * being waited for. With {@link Constants#CLIENT_ACK} or
+   * {@link Constants#CLIENT_INDIVIDUAL_ACK}, each message is acknowledged
+   * once the subscriber's <code>onNext</code> method has returned.
+   * <p>
+   * The subscriber is signalled on the thread running listeners, as set out
+   * by {@link #setDelivery(int, int)}, or else on whichever thread finds
+   * messages to publish. The flow completes when the subscription ends, and
+   * fails if the connection is lost.
+   *
+   * @param topic The destination topic to subscribe to.
+   * @param id The id of the subscription, which must not already be in use
+   * on this connection. If blank or <code>null</code>, a default will be
+   * used.
+   * @param ackMode One of {@link Constants#AUTO_ACK},
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}.
+   * @return The publisher.
+   */
+  public Flow.Publisher<Frame> subscribeFlow(
+    String topic, String id, int ackMode)
+  {
+    return new FramePublisher(this, topic, id, ackMode);
+  } // End ‘subscribeFlow(String, String, int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends an <code>UNSUBSCRIBE</code> frame to the server for the first
+   * subscription made.
+   *
+   * @param receipt Tags whether the server should acknowledge receipt of the
+   * unsubscription request.
+   * @see #unsubscribe(String, boolean)
+   */
+  public void unsubscribe(boolean receipt)
+  {
+
+    String primary = topic == null ? null : id;
+    if (primary == null)
+      log.printWarning("No subscription present – cannot unsubscribe!");
+    else
+      unsubscribe(primary, receipt);
+
+  } // End ‘unsubscribe(boolean)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends an <code>UNSUBSCRIBE</code> frame to the server.
+   *
+   * @param id The id the subscription was made with.
+   * @param receipt Tags whether the server should acknowledge receipt of the
+   * unsubscription request.
+   */
+  public void unsubscribe(String id, boolean receipt)
+  {
+
+    if (!isTCPConnected())
+      log.printTCPError("UNSUBSCRIBE");
+    else if (disconnectIssued)
+      log.printDisconnectError();
+    else if (!isSTOMPConnected)
+      log.printSTOMPError();
+    else if (!subscriptions.containsKey(id))
+      log.printWarning(
+        "No subscription " + id + " present – cannot unsubscribe!");
+    else
+    {
+
+      flushAcks(subscriptions.get(id));
+
+      String receiptID = receipt ?
+        "unsubscribe-" + sequenceNumber.getAndIncrement() : null;
+      CompletableFuture<Frame> pending = transmit("UNSUBSCRIBE",
+        FrameEncoder.unsubscribe(id, receiptID), receiptID);
+
+      if (pending != null)
+      {
+        forget(id);
+        if (receipt)
+          waitForReceipt(receiptID, pending);
+      } // End if
+
+    } // End else
+
+  } // End ‘unsubscribe(String, boolean)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a <code>SEND</code> frame to the server.
+   *
+   * @param message The message to be sent to the server. This must be encoded
+   * in UTF-8 format.
+   * @param receipt Tags whether the server should acknowledge receipt of the
+   * message sent.
+   * @see #sendAsync(String)
+   */
+  public void send(String message, boolean receipt)
+  {
+
+    String receiptID = receipt ?
+      "send-" + sequenceNumber.getAndIncrement() : null;
+    CompletableFuture<Frame> pending = sendFrame(message, receiptID);
+
+    if (pending != null && receipt)
+      waitForReceipt(receiptID, pending);
+
+  } // End ‘send(String, boolean)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends a <code>SEND</code> frame to the server with a receipt request,
+   * without waiting for the receipt. Any number of these may be in flight at
+   * once; each future is completed as its own receipt comes back.
+   *
+   * @param message The message to be sent to the server. This must be encoded
+   * in UTF-8 format.
+   * @return A future completed with the server's <code>RECEIPT</code> frame,
+   * or completed exceptionally if the frame could not be sent, the receipt
+   * timed out or the connection was lost first.
+   */
+  public CompletableFuture<Frame> sendAsync(String message)
+  {
+
+    CompletableFuture<Frame> pending =
+      sendFrame(message, "send-" + sequenceNumber.getAndIncrement());
+
+    return pending != null ? pending : notSent("SEND");
+
+  } // End ‘sendAsync(String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Acknowledges a message received on a subscription made in
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}
+   * mode. Acknowledgements are batched up, and in
+   * {@link Constants#CLIENT_ACK} mode acknowledging a message also
+   * acknowledges every message received on the subscription before it.
+   *
+   * @param message The <code>MESSAGE</code> frame to acknowledge.
+   * @see #setAckBatching(int, long)
+   */
+  public void ack(Frame message)
+  {
+
+    Acknowledger acknowledger = acknowledgerFor(message, "ACK");
+    if (acknowledger != null)
+      try
+      {
+        acknowledger.ack(message.getHeader("message-id"));
+      } // End try
+
+      catch (IOException ioe)
+      {
+        log.printIOError("ACK");
+      } // End ‘IOException’ catch
+
+  } // End ‘ack(Frame)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Tells the server that a message received on a subscription made in
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}
+   * mode could not be dealt with. Any acknowledgements still held back are
+   * sent first; the <code>NACK</code> itself is sent at once.
+   *
+   * @param message The <code>MESSAGE</code> frame to reject.
+   */
+  public void nack(Frame message)
+  {
+
+    Acknowledger acknowledger = acknowledgerFor(message, "NACK");
+    if (acknowledger != null)
+      try
+      {
+        acknowledger.nack(message.getHeader("message-id"));
+      } // End try
+
+      catch (IOException ioe)
+      {
+        log.printIOError("NACK");
+      } // End ‘IOException’ catch
+
+  } // End ‘nack(Frame)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+// ============================== Server Acknowledgement Methods ===============
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Passes a frame received from the server on to the matching handler,
+   * counting and timing it if metrics are kept.
+   */
+  void notifyFrame(Frame frame)
+  {
+
+    ClientMetrics kept = metrics;
+    if (kept == null)
+    {
+      handleFrame(frame);
+      return;
+    } // End if
+
+    kept.frameIn(frame);
+    long start = System.nanoTime();
+    handleFrame(frame);
+    kept.getNotifyTimes().record(System.nanoTime() - start);
+
+  } // End ‘notifyFrame(Frame)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private void handleFrame(Frame frame)
+  {
+
+    String command = frame.getCommand();
+    if (command.equals("CONNECTED"))
+      notifyConnected(frame);
+    else if (command.equals("ERROR"))
+      notifyError(frame.getBodyAsString());
+    else if (command.equals("RECEIPT"))
+      notifyReceipt(frame);
+    else if (command.equals("MESSAGE"))
+      notifyMessage(frame);
+
+  } // End ‘handleFrame(Frame)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Confirms receipt of a <code>CONNECTED</code> frame, and starts keeping
+   * whatever heart-beats it agrees to.
+   */
+  void notifyConnected(Frame frame)
+  {
+
+    isSTOMPConnected = true;
+    log.printInfo("STOMP connection established.");
+    heartBeat.start(config.getHeartBeatOut(), config.getHeartBeatIn(),
+      frame.getHeader("heart-beat"));
+
+    CompletableFuture<Boolean> pending = connection;
+    if (pending != null)
+      pending.complete(true);
+
+  } // End ‘notifyConnected(Frame)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Registers receipt of an <code>ERROR</code> frame.
+   */
+  void notifyError(String body)
+  {
+
+    log.printError("Error frame received:\n" + body);
+    errorReceived = true;
+
+    // The server closes the connection after an ERROR, so nothing that is
+    // still waiting on it will ever be answered.
+    isSTOMPConnected = false;
+    abandonWaiters("ERROR frame received");
+    close();
+
+  } // End ‘notifyError(String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Registers receipt of a <code>RECEIPT</code> frame. This never blocks; the
+   * future waiting on the receipt (if any) is completed with the frame.
+   */
+  void notifyReceipt(Frame frame)
+  {
+
+    String receiptID = frame.getHeader("receipt-id");
+    CompletableFuture<Frame> pending =
+      receiptID == null ? null : receipts.remove(receiptID);
+
+    if (pending != null)
+      pending.complete(frame);
+    else
+      log.printWarning("Ignoring unexpected receipt " + receiptID + ".");
+
+  } // End ‘notifyReceipt(Frame)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Registers that the connection to the server has gone, so that nothing
+   * waits on it any longer.
+   */
+  void notifyClosed()
+  {
+
+    HeartBeat beating = heartBeat;
+    if (beating != null)
+      beating.stop();
+    WritePipeline writing = pipeline;
+    if (writing != null)
+      writing.close();
+
+    isSTOMPConnected = false;
+    abandonWaiters("connection closed");
+
+    for (Subscription subscription : subscriptions.values())
+      if (subscription.getPublisher() != null)
+        subscription.getPublisher().complete(disconnectIssued ?
+          null : new IOException("Connection to the server lost."));
+
+  } // End ‘notifyClosed()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Registers that data (a frame, part of one or a heart-beat) has just
+   * arrived from the server.
+   */
+  void notifyReceived()
+  {
+
+    HeartBeat beating = heartBeat;
+    if (beating != null)
+      beating.received();
+
+  } // End ‘notifyReceived()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Registers receipt of a <code>MESSAGE</code> frame. The message is handed
+   * to the listener or publisher of the subscription named in its
+   * <code>subscription</code> header; failing that, to the client's own
+   * listener; failing that, it is stored in the retrieval system and the
+   * {@link Notifier} alerted.
+   */
+  void notifyMessage(Frame frame)
+  {
+
+    String subscriptionID = frame.getHeader("subscription");
+    Subscription subscription =
+      subscriptionID == null ? null : subscriptions.get(subscriptionID);
+
+    if (subscription != null && subscription.getDispatcher() != null)
+      dispatch(subscription.getDispatcher(), frame);
+    else if (subscription != null && subscription.getPublisher() != null)
+      subscription.getPublisher().offer(frame);
+    else if (dispatcher != null)
+      dispatch(dispatcher, frame);
+    else
+    {
+      inbox.offer(frame);
+      if (notifier != null)
+        notifier.alert();
+    } // End else
+
+  } // End ‘notifyMessage(Frame)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Registers that every frame decoded so far has been delivered, so that
+   * batches building up for listeners called on the receiving thread can be
+   * handed over.
+   */
+  void notifyDelivered()
+  {
+
+    if (waiting.isEmpty())
+      return;
+
+    for (Dispatcher batching : waiting)
+      batching.endOfBatch();
+    waiting.clear();
+
+  } // End ‘notifyDelivered()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+// ============================================ Decoder Settings ===============
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  int getMaxFrameSize()
+  {
+    return config.getMaxFrameSize();
+  } // End ‘getMaxFrameSize()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  int getMaxHeapBody()
+  {
+    return config.getMaxHeapBody();
+  } // End ‘getMaxHeapBody()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+// ==================================================== Printing ===============
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  Log getLog()
+  {
+    return log;
+  } // End ‘getLog()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+// ===================================================== Metrics ===============
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  LatencyHistogram getParseTimes()
+  {
+    ClientMetrics kept = metrics;
+    return kept == null ? null : kept.getParseTimes();
+  } // End ‘getParseTimes()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+// =================================== Stream Listener Callbacks ===============
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * @return Whether any subscription has a {@link StreamListener}.
+   */
+  boolean hasStreamListeners()
+  {
+    return streamed > 0;
+  } // End ‘hasStreamListeners()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * @param message The head of a <code>MESSAGE</code> frame.
+   * @return The stream listener of the subscription the message is for
+   * (<code>null</code> if it has none).
+   */
+  StreamListener getStreamListener(Frame message)
+  {
+
+    String subscriptionID = message.getHeader("subscription");
+    Subscription subscription =
+      subscriptionID == null ? null : subscriptions.get(subscriptionID);
+
+    StreamListener listener =
+      subscription == null ? null : subscription.getStreamListener();
+
+    ClientMetrics kept = metrics;
+    if (listener != null && kept != null)
+      kept.frameIn(message); // Only the head; the body is the listener’s.
+
+    return listener;
+
+  } // End ‘getStreamListener(Frame)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+// ==================================== Flow Publisher Callbacks ===============
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends the <code>SUBSCRIBE</code> frame for a publisher that has just
+   * been subscribed to. No receipt is asked for, as reading may well be
+   * suspended by the time it arrives.
+   *
+   * @return Whether the frame was sent.
+   */
+  boolean subscribeFlow(FramePublisher publisher, String id)
+  {
+    return subscribeFrame(publisher.getSubscription(), id, null) != null;
+  } // End ‘subscribeFlow(FramePublisher, String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  Transport getTransport()
+  {
+    return transport;
+  } // End ‘getTransport()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * @return What runs listeners (<code>null</code> for the receiving
+   * thread).
+   */
+  Executor getDeliveryExecutor()
+  {
+    return executor;
+  } // End ‘getDeliveryExecutor()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private boolean isTCPConnected()
+  {
+    return transport != null && transport.isOpen();
+  } // End ‘isTCPConnected()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private void subscribe(
+    Subscription subscription, String id, boolean receipt)
+  {
+
+    String receiptID = receipt ?
+      "subscribe-" + sequenceNumber.getAndIncrement() : null;
+    CompletableFuture<Frame> pending =
+      subscribeFrame(subscription, id, receiptID);
+
+    if (pending != null && receipt)
+      waitForReceipt(receiptID, pending);
+
+  } // End ‘subscribe(Subscription, String, boolean)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private CompletableFuture<Frame> subscribeAsync(
+    Subscription subscription, String id)
+  {
+
+    CompletableFuture<Frame> pending = subscribeFrame(subscription, id,
+      "subscribe-" + sequenceNumber.getAndIncrement());
+
+    return pending != null ? pending : notSent("SUBSCRIBE");
+
+  } // End ‘subscribeAsync(Subscription, String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private CompletableFuture<Frame> subscribeFrame(
+    Subscription subscription, String id, String receiptID)
+  {
+
+    String topic = subscription.getDestination();
+    int ackMode = subscription.getAckMode();
+
+    if (!isTCPConnected())
+      log.printTCPError("SUBSCRIBE");
+    else if (disconnectIssued)
+      log.printDisconnectError();
+    else if (!isSTOMPConnected)
+      log.printSTOMPError();
+    else if (ackMode != AUTO_ACK && ackMode != CLIENT_ACK &&
+      ackMode != CLIENT_INDIVIDUAL_ACK)
+      log.printError("Unknown acknowledgement mode " + ackMode + ".");
+    else
+    {
+
+      synchronized (subscriptions)
+      {
+
+        if (id == null || id.equals(""))
+          id = this.topic == null ?
+            this.id : "subscription-" + sequenceNumber.getAndIncrement();
+
+        if (subscriptions.containsKey(id))
+        {
+          log.printWarning("Subscription " + id + " to " +
+            subscriptions.get(id).getDestination() + " already established!");
+          return null;
+        } // End if
+
+        // In place before the frame goes out, so no message can beat it.
+        subscription.register(id, ackMode == AUTO_ACK ? null :
+          new Acknowledger(pipeline, log, metrics, id, ackMode,
+            config.getAckCount(), config.getAckDelay()));
+        subscriptions.put(id, subscription);
+        if (subscription.getStreamListener() != null)
+          streamed++;
+        if (this.topic == null)
+        {
+          this.id = id;
+          this.topic = topic;
+        } // End if
+
+      } // End synchronized
+
+      CompletableFuture<Frame> pending = transmit("SUBSCRIBE",
+        FrameEncoder.subscribe(id, topic, ackMode, receiptID), receiptID);
+
+      if (pending == null)
+        forget(id);
+
+      return pending;
+
+    } // End else
+
+    return null;
+
+  } // End ‘subscribeFrame(Subscription, String, String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Creates what hands messages to a listener, as set out by
+   * {@link #setDelivery(int, int)}.
+   *
+   * @return The dispatcher (<code>null</code> if there is no listener).
+   */
+  private Dispatcher dispatcherFor(
+    MessageListener listener, BatchListener batchListener)
+  {
+
+    if (batchListener != null)
+      return new Dispatcher(
+        batchListener, executor, config.getDeliveryBatch(), transport);
+    else if (listener != null)
+      return Dispatcher.forEach(
+        listener, executor, config.getDeliveryBatch(), transport);
+    else
+      return null;
+
+  } // End ‘dispatcherFor(MessageListener, BatchListener)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * @return A listener handing a stream listener bodies already gathered,
+   * for where they cannot be streamed off the socket.
+   */
+  private MessageListener gathered(final StreamListener listener)
+  {
+
+    return new MessageListener()
+    {
+      public void messageReceived(Frame frame)
+      {
+        try
+        {
+          listener.messageReceived(frame, new BodyStream(frame.getBody()));
+        } // End try
+
+        catch (IOException ioe)
+        {
+          log.printError("Stream listener failed: " + ioe);
+        } // End ‘IOException’ catch
+      } // End ‘messageReceived(Frame)’ Method
+    };
+
+  } // End ‘gathered(StreamListener)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * @return What is to run listeners (<code>null</code> for the receiving
+   * thread).
+   */
+  private Executor startDelivery()
+  {
+
+    if (customExecutor != null)
+      return customExecutor;
+    else if (config.getDeliveryMode() == POOLED_DELIVERY)
+      return Dispatcher.sharedPool(config.getThreadMode());
+    else if (config.getDeliveryMode() == DEDICATED_DELIVERY)
+    {
+      dedicatedExecutor = Dispatcher.dedicatedThread(config.getThreadMode());
+      return dedicatedExecutor;
+    } // End else if
+    else
+      return null;
+
+  } // End ‘startDelivery()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * @return An empty inbox, as configured.
+   */
+  private Inbox newInbox()
+  {
+
+    if (config.getInboxType() == LOCKED_INBOX)
+      return new BoundedInbox(
+        config.getInboxCapacity(), config.getOverflowPolicy());
+
+    return new RingInbox(config.getInboxCapacity(),
+      config.getOverflowPolicy(), config.getInboxType() == MPSC_INBOX);
+
+  } // End ‘newInbox()’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private void dispatch(Dispatcher target, Frame frame)
+  {
+    if (target.dispatch(frame))
+      waiting.add(target);
+  } // End ‘dispatch(Dispatcher, Frame)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Finds what acknowledges a message, provided it can be acknowledged.
+   */
+  private Acknowledger acknowledgerFor(Frame message, String command)
+  {
+
+    String subscriptionID = message.getHeader("subscription");
+    Subscription subscription =
+      subscriptionID == null ? null : subscriptions.get(subscriptionID);
+
+    if (!isTCPConnected())
+      log.printTCPError(command);
+    else if (!isSTOMPConnected)
+      log.printSTOMPError();
+    else if (message.getHeader("message-id") == null)
+      log.printError("Message has no message-id – cannot " + command +
+        " it!");
+    else if (subscription == null)
+      log.printWarning("No subscription " + subscriptionID +
+        " present – cannot " + command + " message!");
+    else if (subscription.getAcknowledger() == null)
+      log.printWarning("Subscription " + subscriptionID +
+        " does not take acknowledgements.");
+    else
+      return subscription.getAcknowledger();
+
+    return null;
+
+  } // End ‘acknowledgerFor(Frame, String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Sends whatever acknowledgements a subscription is still holding back.
+   */
+  private void flushAcks(Subscription subscription)
+  {
+
+    Acknowledger acknowledger = subscription.getAcknowledger();
+    if (acknowledger != null)
+      try
+      {
+        acknowledger.flush();
+      } // End try
+
+      catch (IOException ioe)
+      {
+        log.printIOError("ACK");
+      } // End ‘IOException’ catch
+
+  } // End ‘flushAcks(Subscription)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Drops a subscription, letting the next one made take over as the first
+   * if need be.
+   */
+  private void forget(String id)
+  {
+
+    Subscription removed;
+    synchronized (subscriptions)
+    {
+      removed = subscriptions.remove(id);
+      if (removed != null && removed.getStreamListener() != null)
+        streamed--;
+      if (topic != null && id.equals(this.id))
+        topic = null;
+    } // End synchronized
+
+    if (removed != null && removed.getPublisher() != null)
+      removed.getPublisher().complete(null);
+
+  } // End ‘forget(String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private CompletableFuture<Frame> sendFrame(String message, String receiptID)
+  {
+
+    if (!isTCPConnected())
+      log.printTCPError("SEND");
+    else if (disconnectIssued)
+      log.printDisconnectError();
+    else if (!isSTOMPConnected)
+      log.printSTOMPError();
+    else if (topic == null)
+      log.printError("No subscription present – cannot send message!");
+    else
+    {
+
+      return transmit(
+        "SEND", FrameEncoder.send(topic, message, receiptID), receiptID);
+
+    } // End else
+
+    return null;
+
+  } // End ‘sendFrame(String, String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Writes an encoded frame, having first arranged to catch its receipt.
+   *
+   * @return A future for the receipt (completed at once if no receipt was
+   * requested), or <code>null</code> if the frame could not be written.
+   */
+  private CompletableFuture<Frame> transmit(
+    String command, ByteBuffer stompFrame, String receiptID)
+  {
+
+    CompletableFuture<Frame> pending =
+      receiptID == null ? SENT : expectReceipt(receiptID);
+
+    // The frame goes back to the pool once written, so show it first.
+    log.printSendFrame(stompFrame);
+    countOut(command, stompFrame);
+
+    try
+    {
+      pipeline.write(stompFrame, false);
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printIOError(command);
+      pending.completeExceptionally(ioe);
+      return null;
+    } // End ‘IOException’ catch
+
+    return pending;
+
+  } // End ‘transmit(String, ByteBuffer, String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private CompletableFuture<Frame> expectReceipt(final String receiptID)
+  {
+
+    // Must be in place before the frame is written, so that a quick
+    // RECEIPT cannot slip past unnoticed.
+    final CompletableFuture<Frame> pending = new CompletableFuture<Frame>();
+    receipts.put(receiptID, pending);
+
+    pending.orTimeout(config.getReceiptTimeout(), TimeUnit.MILLISECONDS)
+      .whenComplete((frame, failure) -> receipts.remove(receiptID, pending));
+
+    final ClientMetrics kept = metrics;
+    if (kept != null)
+    {
+      final long start = System.nanoTime();
+      pending.thenRun(() ->
+        kept.getReceiptTimes().record(System.nanoTime() - start));
+    } // End if
+
+    return pending;
+
+  } // End ‘expectReceipt(String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  /**
+   * Counts an encoded frame about to be written, if metrics are kept.
+   */
+  private void countOut(String command, ByteBuffer stompFrame)
+  {
+    ClientMetrics kept = metrics;
+    if (kept != null)
+      kept.frameOut(command, stompFrame.remaining());
+  } // End ‘countOut(String, ByteBuffer)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private boolean waitForReceipt(
+    String receiptID, CompletableFuture<Frame> pending)
+  {
+
+    boolean received = false;
+    if (log.isEnabled(INFO))
+      log.printInfo("Waiting for receipt " + receiptID + ".");
+
+    try
+    {
+      pipeline.flush(); // The frame may still be waiting in a batch.
+      pending.get();
+      if (log.isEnabled(INFO))
+        log.printInfo("Receipt " + receiptID + " received.");
+      received = true;
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printIOError("queued");
+    } // End ‘IOException’ catch
+
+    catch (ExecutionException ee)
+    {
+      if (ee.getCause() instanceof TimeoutException)
+        log.printWarning("Receipt " + receiptID +
+          " not received within " + config.getReceiptTimeout() + "ms.");
+      else
+        log.printError("Receipt " + receiptID + " abandoned: " +
+          ee.getCause().getMessage() + ".");
+    } // End ‘ExecutionException’ catch
+
+    catch (InterruptedException ie)
+    {
+      Thread.currentThread().interrupt();
+    } // End ‘InterruptedException’ catch
+
+    return received;
+
+  } // End ‘waitForReceipt(String, CompletableFuture<Frame>)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private static ClientConfig levelled(int debugLevel)
+  {
+
+    ClientConfig config = new ClientConfig();
+    config.setDebugLevel(debugLevel);
+
+    return config;
+
+  } // End ‘levelled(int)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private static CompletableFuture<Frame> notSent(String command)
+  {
+    return CompletableFuture.failedFuture(
+      new IllegalStateException(command + " frame not sent."));
+  } // End ‘notSent(String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+  private void abandonWaiters(String reason)
+  {
+
+    CompletableFuture<Boolean> pendingConnection = connection;
+    if (pendingConnection != null)
+      pendingConnection.complete(false);
+
+    for (String receiptID : receipts.keySet())
+    {
+      CompletableFuture<Frame> pending = receipts.remove(receiptID);
+      if (pending != null)
+        pending.completeExceptionally(new IOException(reason));
+    } // End for
+
+  } // End ‘abandonWaiters(String)’ Method
+
+// --------------------------------------- ClientInterface Class ---------------
+
+} // End ‘ClientInterface’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
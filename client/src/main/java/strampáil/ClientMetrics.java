@@ -0,0 +1,311 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>ClientMetrics</code> are kept for a client when asked for (see
+ * {@link ClientInterface#setMetricsMode(int)}): frames and bytes each way by
+ * command, how long receipts take to come back, and how long each frame
+ * takes to decode and then to be handled. Counters are striped across
+ * threads ({@link LongAdder}) and times go into lock-free histograms, so the
+ * threads doing the counting never contend with each other or wait on
+ * anyone reading them.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @see MetricsSnapshot
+ */
+final class ClientMetrics implements ClientMetricsMXBean
+{
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  private static final String[] COMMANDS = {"CONNECT", "STOMP", "CONNECTED",
+    "SEND", "SUBSCRIBE", "UNSUBSCRIBE", "ACK", "NACK", "BEGIN", "COMMIT",
+    "ABORT", "DISCONNECT", "MESSAGE", "RECEIPT", "ERROR", "OTHER"};
+
+  private static final AtomicInteger registered = new AtomicInteger(0);
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  private final ClientInterface client;
+  private final LongAdder[] framesIn, bytesIn, framesOut, bytesOut;
+  private final LatencyHistogram receiptTimes, parseTimes, notifyTimes;
+  private ObjectName name;
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  /**
+   * @param client The client the metrics are kept for (read for the state
+   * of its inbox).
+   */
+  ClientMetrics(ClientInterface client)
+  {
+
+    this.client = client;
+    framesIn = counters();
+    bytesIn = counters();
+    framesOut = counters();
+    bytesOut = counters();
+    receiptTimes = new LatencyHistogram();
+    parseTimes = new LatencyHistogram();
+    notifyTimes = new LatencyHistogram();
+    name = null;
+
+  } // End ‘ClientMetrics(ClientInterface)’ Constructor
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  /**
+   * Counts a frame received from the server.
+   */
+  void frameIn(Frame frame)
+  {
+    int index = indexOf(frame.getCommand());
+    framesIn[index].increment();
+    bytesIn[index].add(frame.getWireLength());
+  } // End ‘frameIn(Frame)’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  /**
+   * Counts a frame sent to the server.
+   *
+   * @param command The frame's command.
+   * @param bytes The length of the encoded frame.
+   */
+  void frameOut(String command, int bytes)
+  {
+    int index = indexOf(command);
+    framesOut[index].increment();
+    bytesOut[index].add(bytes);
+  } // End ‘frameOut(String, int)’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  /**
+   * Publishes these metrics over JMX, until {@link #unregister()}.
+   *
+   * @param address The address of the server the client talks to.
+   * @param port The port of the server the client talks to.
+   * @param log Where to print should the registration fail.
+   */
+  void register(String address, int port, Log log)
+  {
+
+    try
+    {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName wanted = new ObjectName("strampáil:type=Client,name=" +
+        ObjectName.quote(address + ":" + port + "#" +
+          registered.incrementAndGet()));
+      server.registerMBean(this, wanted);
+      name = wanted;
+    } // End try
+
+    catch (JMException jme)
+    {
+      log.printWarning("Unable to publish metrics over JMX: " + jme);
+    } // End ‘JMException’ catch
+
+  } // End ‘register(String, int, Log)’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  /**
+   * Withdraws these metrics from JMX, if they were published.
+   */
+  void unregister()
+  {
+
+    if (name == null)
+      return;
+
+    try
+    {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+    } // End try
+
+    catch (JMException jme)
+    {
+      // Already gone; nothing to do.
+    } // End ‘JMException’ catch
+
+    name = null;
+
+  } // End ‘unregister()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  /**
+   * @return A copy of the metrics as they stand.
+   */
+  MetricsSnapshot snapshot()
+  {
+    return new MetricsSnapshot(this);
+  } // End ‘snapshot()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+// ====================================================== MXBean ===============
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  public Map<String, Long> getFramesIn()
+  {
+    return byCommand(framesIn);
+  } // End ‘getFramesIn()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  public Map<String, Long> getBytesIn()
+  {
+    return byCommand(bytesIn);
+  } // End ‘getBytesIn()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  public Map<String, Long> getFramesOut()
+  {
+    return byCommand(framesOut);
+  } // End ‘getFramesOut()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  public Map<String, Long> getBytesOut()
+  {
+    return byCommand(bytesOut);
+  } // End ‘getBytesOut()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  public Map<String, Long> getReceiptLatency()
+  {
+    return receiptTimes.snapshot().toMap();
+  } // End ‘getReceiptLatency()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  public Map<String, Long> getParseTime()
+  {
+    return parseTimes.snapshot().toMap();
+  } // End ‘getParseTime()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  public Map<String, Long> getNotifyTime()
+  {
+    return notifyTimes.snapshot().toMap();
+  } // End ‘getNotifyTime()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  public int getInboxDepth()
+  {
+    return client.getInboxSize();
+  } // End ‘getInboxDepth()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  public long getDroppedCount()
+  {
+    return client.getDroppedCount();
+  } // End ‘getDroppedCount()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+// =================================================== Accessors ===============
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  LatencyHistogram getReceiptTimes()
+  {
+    return receiptTimes;
+  } // End ‘getReceiptTimes()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  LatencyHistogram getParseTimes()
+  {
+    return parseTimes;
+  } // End ‘getParseTimes()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  LatencyHistogram getNotifyTimes()
+  {
+    return notifyTimes;
+  } // End ‘getNotifyTimes()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  private static LongAdder[] counters()
+  {
+
+    LongAdder[] counters = new LongAdder[COMMANDS.length];
+    for (int index = 0; index < counters.length; index++)
+      counters[index] = new LongAdder();
+
+    return counters;
+
+  } // End ‘counters()’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  /**
+   * @return Where the given command is counted (the last place, for
+   * commands STOMP does not define).
+   */
+  private static int indexOf(String command)
+  {
+
+    for (int index = 0; index < COMMANDS.length - 1; index++)
+      if (COMMANDS[index].equals(command))
+        return index;
+
+    return COMMANDS.length - 1;
+
+  } // End ‘indexOf(String)’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+  /**
+   * @return The counts of every command seen so far, in the order STOMP
+   * lists them.
+   */
+  private static Map<String, Long> byCommand(LongAdder[] counters)
+  {
+
+    LinkedHashMap<String, Long> counts = new LinkedHashMap<String, Long>();
+    for (int index = 0; index < counters.length; index++)
+    {
+      long count = counters[index].sum();
+      if (count > 0)
+        counts.put(COMMANDS[index], count);
+    } // End for
+
+    return Collections.unmodifiableMap(counts);
+
+  } // End ‘byCommand(LongAdder[])’ Method
+
+// ----------------------------------------- ClientMetrics Class ---------------
+
+} // End ‘ClientMetrics’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
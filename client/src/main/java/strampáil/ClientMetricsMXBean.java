@@ -0,0 +1,93 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.util.Map;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * The <code>ClientMetricsMXBean</code> is what a client shows of its metrics
+ * over JMX, when kept in {@link Constants#JMX_METRICS} mode. Each client is
+ * registered under <code>strampáil:type=Client</code>, named after the
+ * server it talks to, from its TCP handshake until it is closed. Times are
+ * in nanoseconds.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @see MetricsSnapshot
+ */
+public interface ClientMetricsMXBean
+{
+
+// ------------------------------- ClientMetricsMXBean Interface ---------------
+
+  /**
+   * @return How many frames of each command have been received.
+   */
+  Map<String, Long> getFramesIn();
+
+// ------------------------------- ClientMetricsMXBean Interface ---------------
+
+  /**
+   * @return How many bytes of each command have been received.
+   */
+  Map<String, Long> getBytesIn();
+
+// ------------------------------- ClientMetricsMXBean Interface ---------------
+
+  /**
+   * @return How many frames of each command have been sent.
+   */
+  Map<String, Long> getFramesOut();
+
+// ------------------------------- ClientMetricsMXBean Interface ---------------
+
+  /**
+   * @return How many bytes of each command have been sent.
+   */
+  Map<String, Long> getBytesOut();
+
+// ------------------------------- ClientMetricsMXBean Interface ---------------
+
+  /**
+   * @return A summary of how long receipts took to come back.
+   * @see HistogramSnapshot#toMap()
+   */
+  Map<String, Long> getReceiptLatency();
+
+// ------------------------------- ClientMetricsMXBean Interface ---------------
+
+  /**
+   * @return A summary of how long frames took to decode.
+   * @see HistogramSnapshot#toMap()
+   */
+  Map<String, Long> getParseTime();
+
+// ------------------------------- ClientMetricsMXBean Interface ---------------
+
+  /**
+   * @return A summary of how long frames took to be handled once decoded.
+   * @see HistogramSnapshot#toMap()
+   */
+  Map<String, Long> getNotifyTime();
+
+// ------------------------------- ClientMetricsMXBean Interface ---------------
+
+  /**
+   * @return The number of messages waiting in the inbox.
+   */
+  int getInboxDepth();
+
+// ------------------------------- ClientMetricsMXBean Interface ---------------
+
+  /**
+   * @return The number of messages dropped because the inbox was full.
+   */
+  long getDroppedCount();
+
+// ------------------------------- ClientMetricsMXBean Interface ---------------
+
+} // End ‘ClientMetricsMXBean’ Interface
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
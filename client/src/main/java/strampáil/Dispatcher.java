@@ -0,0 +1,303 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>Dispatcher</code> hands the <code>MESSAGE</code> frames meant for
+ * one listener over to it, either on the receiving thread itself or through
+ * an {@link Executor}.
+ * <p>
+ * Delivered directly, a {@link BatchListener} is called once the frames
+ * from each read from the server have all been decoded, and a
+ * {@link MessageListener} as each frame is decoded.
+ * <p>
+ * Delivered through an executor, frames are put in a single-producer
+ * {@link RingInbox}, and a drain task hands over whatever has built up, a
+ * batch at a time. At most one drain task per listener is ever queued or
+ * running, so frames keep their order even on a pool of threads. Should the
+ * listener fall far enough behind to fill the ring, reading from the server
+ * is suspended until it catches up.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class Dispatcher implements Constants
+{
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  private static final int QUEUE_SIZE = 1024;
+  private static final ExecutorService pool = createPool();
+  private static final Executor virtualPool = createVirtualPool();
+
+  private final BatchListener listener;
+  private final Executor executor;
+  private final int maxBatch;
+  private final Inbox queue;
+  private final ArrayList<Frame> batch;
+  private final AtomicInteger queued;
+  private final Runnable drainTask;
+  private boolean waiting; // Only touched by the receiving thread.
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  /**
+   * @param listener The listener.
+   * @param executor What runs the listener (<code>null</code> for the
+   * receiving thread).
+   * @param maxBatch The most frames to hand over at once.
+   * @param transport The connection, to be held back when the listener
+   * falls behind.
+   */
+  Dispatcher(BatchListener listener, Executor executor, int maxBatch,
+    Transport transport)
+  {
+
+    this.listener = listener;
+    this.executor = executor;
+    this.maxBatch = maxBatch;
+    batch = new ArrayList<Frame>(Math.min(maxBatch, QUEUE_SIZE));
+    queued = new AtomicInteger(0);
+    waiting = false;
+
+    if (executor == null)
+      queue = null;
+    else
+    {
+      queue = new RingInbox(
+        Math.max(QUEUE_SIZE, maxBatch), BLOCK_WHEN_FULL, false);
+      queue.attach(transport);
+    } // End else
+
+    drainTask = new Runnable()
+    {
+      public void run()
+      {
+        drain();
+      } // End ‘run()’ Method
+    };
+
+  } // End ‘Dispatcher(BatchListener, Executor, int, Transport)’ Constructor
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  /**
+   * Creates a dispatcher for a listener handed frames one at a time.
+   * Directly delivered, each frame is handed over as soon as it is decoded.
+   */
+  static Dispatcher forEach(final MessageListener listener,
+    Executor executor, int maxBatch, Transport transport)
+  {
+
+    BatchListener each = new BatchListener()
+    {
+      public void messagesReceived(List<Frame> frames)
+      {
+        for (Frame frame : frames)
+          deliver(listener, frame);
+      } // End ‘messagesReceived(List<Frame>)’ Method
+    };
+
+    return new Dispatcher(
+      each, executor, executor == null ? 1 : maxBatch, transport);
+
+  } // End ‘forEach(MessageListener, Executor, int, Transport)’ Method
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  /**
+   * Hands over a frame, or queues it up to be. Called by the receiving
+   * thread only.
+   *
+   * @param frame The <code>MESSAGE</code> frame.
+   * @return Whether frames are now waiting on {@link #endOfBatch()}, having
+   * not been before.
+   */
+  boolean dispatch(Frame frame)
+  {
+
+    if (queue != null)
+    {
+      if (!queue.offer(frame))
+        Printer.printWarning("Delivery queue full – message dropped.");
+      else if (queued.getAndIncrement() == 0)
+        schedule();
+    } // End if
+    else
+    {
+      batch.add(frame);
+      if (batch.size() >= maxBatch)
+        deliverBatch();
+      else if (!waiting)
+      {
+        waiting = true;
+        return true;
+      } // End else if
+    } // End else
+
+    return false;
+
+  } // End ‘dispatch(Frame)’ Method
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  /**
+   * Hands over any frames waiting to go to a batch listener on the
+   * receiving thread. Called by the receiving thread once it has nothing
+   * more decoded to deliver.
+   */
+  void endOfBatch()
+  {
+
+    waiting = false;
+    if (!batch.isEmpty())
+      deliverBatch();
+
+  } // End ‘endOfBatch()’ Method
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  /**
+   * @param threadMode One of {@link Constants#PLATFORM_THREADS} or
+   * {@link Constants#VIRTUAL_THREADS}.
+   * @return Threads shared by every client in the JVM: a fixed pool of
+   * daemon threads, or a new virtual thread for each task.
+   */
+  static Executor sharedPool(int threadMode)
+  {
+    return threadMode == VIRTUAL_THREADS ? virtualPool : pool;
+  } // End ‘sharedPool(int)’ Method
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  /**
+   * @param threadMode One of {@link Constants#PLATFORM_THREADS} or
+   * {@link Constants#VIRTUAL_THREADS}.
+   * @return A single thread, to be shut down by whoever asked for it.
+   */
+  static ExecutorService dedicatedThread(int threadMode)
+  {
+    return Executors.newSingleThreadExecutor(
+      Threads.factory("strampáil-delivery", threadMode));
+  } // End ‘dedicatedThread(int)’ Method
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  private void schedule()
+  {
+
+    try
+    {
+      executor.execute(drainTask);
+    } // End try
+
+    catch (RejectedExecutionException ree)
+    {
+      Printer.printWarning("Delivery executor shut down – " + queued.get() +
+        " messages left undelivered.");
+    } // End ‘RejectedExecutionException’ catch
+
+  } // End ‘schedule()’ Method
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  private void drain()
+  {
+
+    int count = queue.drain(batch, maxBatch);
+    deliverBatch();
+
+    if (queued.addAndGet(-count) > 0)
+      schedule(); // More arrived meanwhile; queued behind everyone else's.
+
+  } // End ‘drain()’ Method
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  private static void deliver(MessageListener listener, Frame frame)
+  {
+
+    try
+    {
+      listener.messageReceived(frame);
+    } // End try
+
+    catch (RuntimeException re)
+    {
+      Printer.printError("Message listener failed: " + re);
+    } // End ‘RuntimeException’ catch
+
+  } // End ‘deliver(MessageListener, Frame)’ Method
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  private void deliverBatch()
+  {
+
+    try
+    {
+      listener.messagesReceived(batch);
+    } // End try
+
+    catch (RuntimeException re)
+    {
+      Printer.printError("Batch listener failed: " + re);
+    } // End ‘RuntimeException’ catch
+
+    batch.clear();
+
+  } // End ‘deliverBatch()’ Method
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  private static ExecutorService createPool()
+  {
+    return Executors.newFixedThreadPool(
+      Runtime.getRuntime().availableProcessors(),
+      Threads.factory("strampáil-delivery", PLATFORM_THREADS));
+  } // End ‘createPool()’ Method
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+  /**
+   * @return An executor starting a virtual thread for every task (the
+   * platform pool if there are no virtual threads).
+   */
+  private static Executor createVirtualPool()
+  {
+
+    if (!Threads.virtualSupported())
+      return pool;
+
+    final ThreadFactory factory =
+      Threads.factory("strampáil-delivery", VIRTUAL_THREADS);
+    return new Executor()
+    {
+      public void execute(Runnable task)
+      {
+        factory.newThread(task).start();
+      } // End ‘execute(Runnable)’ Method
+    };
+
+  } // End ‘createVirtualPool()’ Method
+
+// -------------------------------------------- Dispatcher Class ---------------
+
+} // End ‘Dispatcher’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
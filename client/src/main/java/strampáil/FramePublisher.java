@@ -0,0 +1,396 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>FramePublisher</code> publishes the <code>MESSAGE</code> frames of
+ * one subscription to a single {@link Flow.Subscriber}, no faster than it
+ * asks for them. The <code>SUBSCRIBE</code> frame goes out once the
+ * subscriber has subscribed, and cancelling sends the
+ * <code>UNSUBSCRIBE</code>. The flow completes when the subscription ends
+ * (on unsubscribing or disconnecting), and fails if the connection is
+ * lost.
+ * <p>
+ * Demand drives the socket: as soon as frames are waiting that have not
+ * been asked for, or the subscriber has nothing outstanding, reading from
+ * the server is suspended, and it resumes once more frames are asked for.
+ * With {@link Constants#CLIENT_ACK} or
+ * {@link Constants#CLIENT_INDIVIDUAL_ACK}, each frame is acknowledged once
+ * <code>onNext</code> has returned, so a broker limiting unacknowledged
+ * messages is held back by the subscriber as well.
+ * <p>
+ * Signals are sent by whichever thread finds work to do (the receiving
+ * thread, or one calling {@link #request(long)}), or on the client's
+ * delivery executor if it has one; never by two threads at once.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @see ClientInterface#subscribeFlow(String, String, int)
+ */
+final class FramePublisher
+  implements Flow.Publisher<Frame>, Flow.Subscription, Constants
+{
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  private static final int QUEUE_SIZE = 1024;
+
+  private final ClientInterface client;
+  private final Subscription subscription;
+  private final String requestedID;
+  private final Inbox queue;
+  private final AtomicLong demand;
+  private final AtomicInteger work;
+  private final AtomicBoolean subscribed, holdingBack;
+  private final Runnable drainTask;
+  private volatile Flow.Subscriber<? super Frame> subscriber;
+  private volatile Executor executor;
+  private volatile Transport transport;
+  private volatile boolean cancelled, done;
+  private volatile Throwable failure;
+  private boolean terminated, unsubscribed; // Only touched while draining.
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  /**
+   * @param id The id asked for (<code>null</code> or blank for a default).
+   * @param ackMode One of {@link Constants#AUTO_ACK},
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}.
+   */
+  FramePublisher(ClientInterface client, String topic, String id, int ackMode)
+  {
+
+    this.client = client;
+    subscription = new Subscription(topic, ackMode, this);
+    requestedID = id;
+    queue = new RingInbox(QUEUE_SIZE, DROP_NEWEST, false);
+    demand = new AtomicLong(0);
+    work = new AtomicInteger(0);
+    subscribed = new AtomicBoolean(false);
+    holdingBack = new AtomicBoolean(false);
+    subscriber = null;
+    executor = null;
+    transport = null;
+    cancelled = false;
+    done = false;
+    failure = null;
+    terminated = false;
+    unsubscribed = false;
+
+    drainTask = new Runnable()
+    {
+      public void run()
+      {
+        drainLoop();
+      } // End ‘run()’ Method
+    };
+
+  } // End ‘FramePublisher(ClientInterface, String, String, int)’ Constructor
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  public void subscribe(Flow.Subscriber<? super Frame> subscriber)
+  {
+
+    if (subscriber == null)
+      throw new NullPointerException("No subscriber given.");
+
+    if (!subscribed.compareAndSet(false, true))
+    {
+      subscriber.onSubscribe(new Flow.Subscription()
+      {
+        public void request(long count){}
+        public void cancel(){}
+      });
+      subscriber.onError(new IllegalStateException(
+        "Only one subscriber may subscribe to a subscription."));
+      return;
+    } // End if
+
+    executor = client.getDeliveryExecutor();
+    transport = client.getTransport();
+    this.subscriber = subscriber;
+    subscriber.onSubscribe(this);
+
+    if (cancelled)
+      return;
+
+    if (!client.subscribeFlow(this, requestedID))
+      fail(new IOException("SUBSCRIBE frame could not be sent."));
+
+  } // End ‘subscribe(Flow.Subscriber<? super Frame>)’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  public void request(long count)
+  {
+
+    if (count <= 0)
+      fail(new IllegalArgumentException(
+        "Demand must be positive (was " + count + ")."));
+    else
+    {
+      long current = demand.get();
+      while (current != Long.MAX_VALUE && !demand.compareAndSet(current,
+        current + count < 0 ? Long.MAX_VALUE : current + count))
+        current = demand.get();
+      drain();
+    } // End else
+
+  } // End ‘request(long)’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  public void cancel()
+  {
+    cancelled = true;
+    drain();
+  } // End ‘cancel()’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  /**
+   * Takes in a frame for the subscriber. Called by the receiving thread
+   * only.
+   */
+  void offer(Frame frame)
+  {
+
+    if (cancelled || done)
+      return;
+
+    if (!queue.offer(frame))
+      client.getLog().printWarning("Flow queue full – message dropped.");
+
+    // Hold the server back straight away rather than once drained.
+    if (queue.size() > demand.get() && holdingBack.compareAndSet(false, true))
+      transport.suspendReading();
+
+    drain();
+
+  } // End ‘offer(Frame)’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  /**
+   * Completes the flow once the frames already taken in have been
+   * published. No more are taken in, and the connection is no longer held
+   * back for them.
+   *
+   * @param cause Why (<code>null</code> if the subscription simply ended).
+   */
+  void complete(Throwable cause)
+  {
+
+    if (done || cancelled)
+      return;
+
+    failure = cause;
+    done = true;
+    drain();
+
+  } // End ‘complete(Throwable)’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  Subscription getSubscription()
+  {
+    return subscription;
+  } // End ‘getSubscription()’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  /**
+   * Ends the flow with an error at once, unsubscribing from the server.
+   */
+  private void fail(Throwable cause)
+  {
+    failure = cause;
+    cancelled = true;
+    drain();
+  } // End ‘fail(Throwable)’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  private void drain()
+  {
+
+    if (work.getAndIncrement() != 0)
+      return; // Whoever is draining will go round again.
+
+    if (executor == null)
+      drainLoop();
+    else
+      executor.execute(drainTask);
+
+  } // End ‘drain()’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  private void drainLoop()
+  {
+
+    int missed = 1;
+
+    do
+    {
+      if (cancelled)
+        stop();
+      else
+      {
+        publish();
+        if (!done)
+          regulate();
+        else
+        {
+          letGo();
+          if (queue.size() == 0)
+            finish();
+        } // End else
+      } // End else
+
+      missed = work.addAndGet(-missed);
+    } // End do
+    while (missed != 0);
+
+  } // End ‘drainLoop()’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  private void publish()
+  {
+
+    long wanted = demand.get();
+    long sent = 0;
+
+    while (sent < wanted && !cancelled)
+    {
+      Frame frame = queue.poll();
+      if (frame == null)
+        break;
+
+      sent++;
+      onNext(frame);
+    } // End while
+
+    if (sent > 0 && wanted != Long.MAX_VALUE)
+      demand.addAndGet(-sent);
+
+  } // End ‘publish()’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  private void onNext(Frame frame)
+  {
+
+    try
+    {
+      subscriber.onNext(frame);
+    } // End try
+
+    catch (RuntimeException re)
+    {
+      client.getLog().printError("Flow subscriber failed: " + re);
+      cancelled = true; // As the subscriber broke its contract.
+      return;
+    } // End ‘RuntimeException’ catch
+
+    Acknowledger acknowledger = subscription.getAcknowledger();
+    if (acknowledger != null)
+      try
+      {
+        acknowledger.ack(frame.getHeader("message-id"));
+      } // End try
+
+      catch (IOException ioe)
+      {
+        client.getLog().printIOError("ACK");
+      } // End ‘IOException’ catch
+
+  } // End ‘onNext(Frame)’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  /**
+   * Suspends reading while the subscriber wants nothing more, and resumes
+   * it once the subscriber has caught up and wants more.
+   */
+  private void regulate()
+  {
+
+    if (queue.size() == 0 && demand.get() > 0)
+    {
+      if (holdingBack.compareAndSet(true, false))
+        transport.resumeReading();
+    } // End if
+    else if (holdingBack.compareAndSet(false, true))
+      transport.suspendReading();
+
+  } // End ‘regulate()’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  private void finish()
+  {
+
+    if (terminated)
+      return;
+
+    terminated = true;
+    if (failure == null)
+      subscriber.onComplete();
+    else
+      subscriber.onError(failure);
+
+  } // End ‘finish()’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  private void stop()
+  {
+
+    while (queue.poll() != null); // Nobody wants them any more.
+    letGo();
+
+    if (!unsubscribed)
+    {
+      unsubscribed = true;
+      String id = subscription.getId();
+      if (id != null && !done && transport.isOpen())
+        client.unsubscribe(id, false);
+    } // End if
+
+    if (failure != null && !terminated)
+    {
+      terminated = true;
+      subscriber.onError(failure);
+    } // End if
+
+  } // End ‘stop()’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+  private void letGo()
+  {
+    if (holdingBack.compareAndSet(true, false))
+      transport.resumeReading();
+  } // End ‘letGo()’ Method
+
+// ---------------------------------------- FramePublisher Class ---------------
+
+} // End ‘FramePublisher’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
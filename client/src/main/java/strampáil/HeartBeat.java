@@ -0,0 +1,283 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>HeartBeat</code> keeps the heart-beats negotiated for one connection.
+ * A lone end-of-line is sent whenever nothing else has been written for the
+ * outgoing interval, and the connection is given up on once nothing at all
+ * has been heard from the server for half as long again as the incoming
+ * interval.
+ * <p>
+ * Rather than being reset by every frame, each timer on the
+ * {@link TimerWheel} only looks at when data last went each way once it
+ * fires, and then sets itself for the moment the connection could next fall
+ * idle. Busy connections therefore cost next to nothing.
+ * <p>
+ * The wheel is shared by every connection, so nothing it runs may block.
+ * A beat is skipped if another thread is writing already (that write being
+ * traffic enough), and a dead connection is given up on by closing its
+ * channel, which never blocks. Where writes themselves can block, beats
+ * are written on threads shared for the purpose instead (see
+ * {@link WritePipeline#execute(Runnable)}).
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+class HeartBeat
+{
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+  private static final byte[] EOL = {'\n'};
+
+  private final WritePipeline pipeline;
+  private final Transport transport;
+  private final Log log;
+  private final AtomicBoolean beating;
+  private volatile long lastReceived;
+  private volatile boolean stopped;
+  private long outgoing, incoming;
+  private TimerWheel.Timeout sendTimeout, receiveTimeout;
+  private Runnable sendCheck, receiveCheck, beatTask;
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+  HeartBeat(WritePipeline pipeline, Transport transport, Log log)
+  {
+
+    this.pipeline = pipeline;
+    this.transport = transport;
+    this.log = log;
+    beating = new AtomicBoolean(false);
+    lastReceived = System.nanoTime();
+    stopped = false;
+    outgoing = 0;
+    incoming = 0;
+    sendTimeout = null;
+    receiveTimeout = null;
+
+    sendCheck = new Runnable()
+    {
+      public void run()
+      {
+        checkSent();
+      } // End ‘run()’ Method
+    };
+    receiveCheck = new Runnable()
+    {
+      public void run()
+      {
+        checkReceived();
+      } // End ‘run()’ Method
+    };
+    beatTask = new Runnable()
+    {
+      public void run()
+      {
+        beat();
+      } // End ‘run()’ Method
+    };
+
+  } // End ‘HeartBeat(WritePipeline, Transport, Log)’ Constructor
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+  /**
+   * Works out the heart-beats to keep from what each side asked for, and
+   * starts keeping them.
+   *
+   * @param canSend How often the client offered to send (<i>cx</i>).
+   * @param wantsReceived How often the client asked to hear from the server
+   * (<i>cy</i>).
+   * @param serverHeader The <code>heart-beat</code> header of the
+   * <code>CONNECTED</code> frame (<code>null</code> if absent).
+   */
+  synchronized void start(long canSend, long wantsReceived, String serverHeader)
+  {
+
+    long serverSends = 0, serverWants = 0;
+    if (serverHeader != null)
+      try
+      {
+        int comma = serverHeader.indexOf(',');
+        serverSends = Long.parseLong(serverHeader.substring(0, comma).trim());
+        serverWants = Long.parseLong(serverHeader.substring(comma + 1).trim());
+      } // End try
+
+      catch (RuntimeException re)
+      {
+        log.printWarning("Ignoring malformed heart-beat header ‘" +
+          serverHeader + "’.");
+        serverSends = 0;
+        serverWants = 0;
+      } // End ‘RuntimeException’ catch
+
+    outgoing = canSend == 0 || serverWants == 0 ?
+      0 : Math.max(canSend, serverWants);
+    incoming = serverSends == 0 || wantsReceived == 0 ?
+      0 : Math.max(serverSends, wantsReceived);
+
+    if (outgoing == 0 && incoming == 0)
+      return;
+
+    log.printInfo("Heart-beating every " + outgoing + "ms, expecting one" +
+      " every " + incoming + "ms (0 = none).");
+
+    lastReceived = System.nanoTime();
+    if (outgoing > 0)
+      sendTimeout = TimerWheel.schedule(sendCheck, outgoing);
+    if (incoming > 0)
+      receiveTimeout = TimerWheel.schedule(receiveCheck, grace());
+
+  } // End ‘start(long, long, String)’ Method
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+  /**
+   * Stops keeping heart-beats, for good.
+   */
+  synchronized void stop()
+  {
+
+    stopped = true;
+
+    if (sendTimeout != null)
+      sendTimeout.cancel();
+    if (receiveTimeout != null)
+      receiveTimeout.cancel();
+
+  } // End ‘stop()’ Method
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+  /**
+   * Records that data has just arrived from the server.
+   */
+  void received()
+  {
+    lastReceived = System.nanoTime();
+  } // End ‘received()’ Method
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+  private synchronized void checkSent()
+  {
+
+    if (stopped)
+      return;
+
+    long idle = elapsed(pipeline.getLastWrite());
+    if (idle >= outgoing)
+    {
+      if (beating.compareAndSet(false, true)) // Else the last is still due.
+        pipeline.execute(beatTask);
+      sendTimeout = TimerWheel.schedule(sendCheck, outgoing);
+    } // End if
+    else
+      sendTimeout = TimerWheel.schedule(sendCheck, outgoing - idle);
+
+  } // End ‘checkSent()’ Method
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+  private void checkReceived()
+  {
+
+    long idle;
+    synchronized (this)
+    {
+      if (stopped)
+        return;
+
+      // Held back on purpose, the server cannot be heard, dead or alive.
+      if (transport.isReadingSuspended())
+        lastReceived = System.nanoTime();
+
+      idle = elapsed(lastReceived);
+      if (idle < grace())
+      {
+        receiveTimeout = TimerWheel.schedule(receiveCheck, grace() - idle);
+        return;
+      } // End if
+
+      stopped = true;
+    } // End synchronized
+
+    log.printError("Nothing heard from the server for " + idle +
+      "ms – connection presumed dead.");
+    giveUp(); // Outside the lock, as closing calls back into the client.
+
+  } // End ‘checkReceived()’ Method
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+  private void beat()
+  {
+
+    try
+    {
+      if (!stopped)
+        pipeline.tryWrite(ByteBuffer.wrap(EOL)); // Skipped if busy anyway.
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printIOError("heart-beat");
+    } // End ‘IOException’ catch
+
+    finally
+    {
+      beating.set(false);
+    } // End finally
+
+  } // End ‘beat()’ Method
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+  private void giveUp()
+  {
+
+    try
+    {
+      transport.close();
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printError("I/O error when closing dead connection.");
+    } // End ‘IOException’ catch
+
+  } // End ‘giveUp()’ Method
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+  /** Allows for beats delayed on the way (by half an interval). */
+  private long grace()
+  {
+    return incoming + incoming / 2;
+  } // End ‘grace()’ Method
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+  private static long elapsed(long since)
+  {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - since);
+  } // End ‘elapsed(long)’ Method
+
+// --------------------------------------------- HeartBeat Class ---------------
+
+} // End ‘HeartBeat’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,91 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.util.Collection;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * An <code>Inbox</code> holds the <code>MESSAGE</code> frames that have
+ * arrived for the retrieval system until the application gets round to
+ * them. Frames are put in by the thread delivering them from the server and
+ * taken out, in the same order, by the application.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @see BoundedInbox
+ * @see RingInbox
+ */
+interface Inbox
+{
+
+// --------------------------------------------- Inbox Interface ---------------
+
+  /**
+   * Gives the inbox the connection its frames arrive on, so that it can
+   * hold the server back if it needs to.
+   *
+   * @param transport The connection.
+   */
+  void attach(Transport transport);
+
+// --------------------------------------------- Inbox Interface ---------------
+
+  /**
+   * Adds a frame, or deals with it as the inbox's overflow policy says if
+   * there is no room. Never blocks.
+   *
+   * @param frame The <code>MESSAGE</code> frame.
+   * @return Whether the frame was taken in (<code>false</code> if it was
+   * dropped).
+   */
+  boolean offer(Frame frame);
+
+// --------------------------------------------- Inbox Interface ---------------
+
+  /**
+   * Takes out the oldest frame.
+   *
+   * @return The frame (<code>null</code> if the inbox is empty).
+   */
+  Frame poll();
+
+// --------------------------------------------- Inbox Interface ---------------
+
+  /**
+   * Takes out the oldest frames, in order, until none are left or enough
+   * have been taken.
+   *
+   * @param into Where the frames are added.
+   * @param max The most frames to take.
+   * @return How many frames were taken.
+   */
+  int drain(Collection<? super Frame> into, int max);
+
+// --------------------------------------------- Inbox Interface ---------------
+
+  /**
+   * @return How many frames are waiting (including any spilled to disk).
+   */
+  int size();
+
+// --------------------------------------------- Inbox Interface ---------------
+
+  /**
+   * @return How many frames have been dropped for want of room.
+   */
+  long getDropped();
+
+// --------------------------------------------- Inbox Interface ---------------
+
+  /**
+   * @return How many frames have been spilled to disk for want of room.
+   */
+  long getSpilled();
+
+// --------------------------------------------- Inbox Interface ---------------
+
+} // End ‘Inbox’ Interface
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,40 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>MessageListener</code> is handed the <code>MESSAGE</code> frames
+ * of a single subscription as they arrive from the server. Subscriptions made
+ * without a listener deliver their messages to the retrieval system (and
+ * {@link Notifier}) instead.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @see ClientInterface#subscribe(String, String, MessageListener, boolean)
+ * @see BatchListener
+ */
+public interface MessageListener
+{
+
+// ----------------------------------- MessageListener Interface ---------------
+
+  /**
+   * This method is triggered whenever a <code>MESSAGE</code> arrives for the
+   * subscription this listener was registered with. Unless listeners are
+   * called on threads of their own (see
+   * {@link ClientInterface#setDelivery(int, int)}), the calling of this
+   * method blocks the delivery of every other frame on the same connection
+   * until it returns, so any heavy processing should be done elsewhere.
+   *
+   * @param frame The <code>MESSAGE</code> frame.
+   */
+  void messageReceived(Frame frame);
+
+// ----------------------------------- MessageListener Interface ---------------
+
+} // End ‘MessageListener’ Interface
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,172 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.util.Map;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>MetricsSnapshot</code> is a copy of one client's metrics, taken at
+ * one moment by {@link ClientInterface#getMetrics()}. Frames and bytes are
+ * counted by command, commands never seen being left out. Counts go on from
+ * the TCP handshake, so the difference between two snapshots gives the
+ * rates in between.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @see ClientMetricsMXBean
+ */
+public final class MetricsSnapshot
+{
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  private final long takenAt;
+  private final Map<String, Long> framesIn, bytesIn, framesOut, bytesOut;
+  private final HistogramSnapshot receiptTimes, parseTimes, notifyTimes;
+  private final int inboxDepth;
+  private final long dropped;
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  MetricsSnapshot(ClientMetrics metrics)
+  {
+
+    takenAt = System.currentTimeMillis();
+    framesIn = metrics.getFramesIn();
+    bytesIn = metrics.getBytesIn();
+    framesOut = metrics.getFramesOut();
+    bytesOut = metrics.getBytesOut();
+    receiptTimes = metrics.getReceiptTimes().snapshot();
+    parseTimes = metrics.getParseTimes().snapshot();
+    notifyTimes = metrics.getNotifyTimes().snapshot();
+    inboxDepth = metrics.getInboxDepth();
+    dropped = metrics.getDroppedCount();
+
+  } // End ‘MetricsSnapshot(ClientMetrics)’ Constructor
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  public String toString()
+  {
+    return "frames in " + framesIn + ", bytes in " + bytesIn +
+      ", frames out " + framesOut + ", bytes out " + bytesOut +
+      ", receipt latency " + receiptTimes + ", parse time " + parseTimes +
+      ", notify time " + notifyTimes + ", inbox depth " + inboxDepth +
+      ", dropped " + dropped;
+  } // End ‘toString()’ Method
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+// =================================================== Accessors ===============
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  /**
+   * @return When the snapshot was taken, in milliseconds since the epoch.
+   */
+  public long getTakenAt()
+  {
+    return takenAt;
+  } // End ‘getTakenAt()’ Method
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  /**
+   * @return How many frames of each command have been received.
+   */
+  public Map<String, Long> getFramesIn()
+  {
+    return framesIn;
+  } // End ‘getFramesIn()’ Method
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  /**
+   * @return How many bytes of each command have been received (not
+   * counting bodies passed to a {@link StreamListener}).
+   */
+  public Map<String, Long> getBytesIn()
+  {
+    return bytesIn;
+  } // End ‘getBytesIn()’ Method
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  /**
+   * @return How many frames of each command have been sent.
+   */
+  public Map<String, Long> getFramesOut()
+  {
+    return framesOut;
+  } // End ‘getFramesOut()’ Method
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  /**
+   * @return How many bytes of each command have been sent.
+   */
+  public Map<String, Long> getBytesOut()
+  {
+    return bytesOut;
+  } // End ‘getBytesOut()’ Method
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  /**
+   * @return How long receipts took to come back, from the frame asking for
+   * one being written to the <code>RECEIPT</code> being handled.
+   */
+  public HistogramSnapshot getReceiptTimes()
+  {
+    return receiptTimes;
+  } // End ‘getReceiptTimes()’ Method
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  /**
+   * @return How long frames took to decode from the bytes read (frames
+   * whose bodies are streamed are not timed).
+   */
+  public HistogramSnapshot getParseTimes()
+  {
+    return parseTimes;
+  } // End ‘getParseTimes()’ Method
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  /**
+   * @return How long frames took to be handled once decoded: queued in the
+   * inbox, or passed to a listener when delivery is direct.
+   */
+  public HistogramSnapshot getNotifyTimes()
+  {
+    return notifyTimes;
+  } // End ‘getNotifyTimes()’ Method
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  /**
+   * @return The number of messages that were waiting in the inbox.
+   */
+  public int getInboxDepth()
+  {
+    return inboxDepth;
+  } // End ‘getInboxDepth()’ Method
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+  /**
+   * @return The number of messages dropped because the inbox was full.
+   */
+  public long getDroppedCount()
+  {
+    return dropped;
+  } // End ‘getDroppedCount()’ Method
+
+// --------------------------------------- MetricsSnapshot Class ---------------
+
+} // End ‘MetricsSnapshot’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,245 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>RingInbox</code> holds frames in a ring of slots allocated up
+ * front, and takes no locks: nothing is allocated per frame, and the
+ * receiving thread and the application only ever meet on the two counters.
+ * <p>
+ * Exactly one thread may take frames out. In single-producer form, exactly
+ * one thread may put them in too (which the receiving thread of a
+ * connection always is); in multi-producer form, any number may, each
+ * claiming its slot with a compare-and-set.
+ * <p>
+ * As only the consumer may touch the far end of the ring, the only overflow
+ * policies a ring can keep are {@link Constants#BLOCK_WHEN_FULL} and
+ * {@link Constants#DROP_NEWEST}. When blocking, reading from the server is
+ * suspended as soon as the ring fills, so normally nothing arrives while it
+ * is full; should anything arrive regardless, it is dropped.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class RingInbox implements Inbox, Constants
+{
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  private final int capacity, mask, policy, lowWatermark;
+  private final boolean multiProducer;
+  private final AtomicReferenceArray<Frame> slots;
+  private final AtomicLong head, tail, dropped;
+  private final AtomicBoolean holdingBack;
+  private volatile Transport transport;
+  private long headCache; // Only touched by the single producer.
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  /**
+   * @param capacity The least number of slots (rounded up to a power of
+   * two).
+   * @param policy Either {@link Constants#BLOCK_WHEN_FULL} or
+   * {@link Constants#DROP_NEWEST}.
+   * @param multiProducer Whether more than one thread may put frames in.
+   */
+  RingInbox(int capacity, int policy, boolean multiProducer)
+  {
+
+    this.capacity = capacity <= 1 ?
+      1 : Integer.highestOneBit(Math.min(capacity, 1 << 30) - 1) << 1;
+    this.policy = policy;
+    this.multiProducer = multiProducer;
+    mask = this.capacity - 1;
+    lowWatermark = this.capacity / 2;
+
+    slots = new AtomicReferenceArray<Frame>(this.capacity);
+    head = new AtomicLong(0);
+    tail = new AtomicLong(0);
+    dropped = new AtomicLong(0);
+    holdingBack = new AtomicBoolean(false);
+    transport = null;
+    headCache = 0;
+
+  } // End ‘RingInbox(int, int, boolean)’ Constructor
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  public void attach(Transport transport)
+  {
+    this.transport = transport;
+    holdingBack.set(false);
+  } // End ‘attach(Transport)’ Method
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  public boolean offer(Frame frame)
+  {
+
+    long position = multiProducer ? claim() : claimAlone();
+    if (position < 0)
+    {
+      dropped.incrementAndGet();
+      return false;
+    } // End if
+
+    // Publishing the slot is what hands the frame over to the consumer.
+    slots.lazySet((int) (position & mask), frame);
+
+    if (policy == BLOCK_WHEN_FULL && position + 1 - head.get() >= capacity &&
+      transport != null && !holdingBack.get())
+    {
+      transport.suspendReading();
+      holdingBack.set(true);
+      resumeIfDrained(); // In case the ring emptied before the flag was up.
+    } // End if
+
+    return true;
+
+  } // End ‘offer(Frame)’ Method
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  public Frame poll()
+  {
+
+    long position = head.get();
+    int index = (int) (position & mask);
+    Frame frame = slots.get(index);
+
+    if (frame != null)
+    {
+      slots.lazySet(index, null);
+      head.lazySet(position + 1);
+    } // End if
+
+    resumeIfDrained();
+
+    return frame;
+
+  } // End ‘poll()’ Method
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  public int drain(Collection<? super Frame> into, int max)
+  {
+
+    long position = head.get();
+    int count = 0;
+
+    while (count < max)
+    {
+      int index = (int) (position & mask);
+      Frame frame = slots.get(index);
+      if (frame == null)
+        break;
+
+      slots.lazySet(index, null);
+      into.add(frame);
+      position++;
+      count++;
+    } // End while
+
+    if (count > 0)
+      head.lazySet(position); // Handing the slots back all in one go.
+
+    resumeIfDrained();
+
+    return count;
+
+  } // End ‘drain(Collection<? super Frame>, int)’ Method
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  public int size()
+  {
+    long taken = head.get(); // Read first, so never ahead of the tail.
+    return (int) Math.min(tail.get() - taken, capacity);
+  } // End ‘size()’ Method
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  public long getDropped()
+  {
+    return dropped.get();
+  } // End ‘getDropped()’ Method
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  public long getSpilled()
+  {
+    return 0;
+  } // End ‘getSpilled()’ Method
+
+// --------------------------------------------- RingInbox Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  /**
+   * Claims the next slot for the one and only producer, looking at the
+   * consumer's counter only when the ring seems full.
+   *
+   * @return The position claimed (-1 if the ring is full).
+   */
+  private long claimAlone()
+  {
+
+    long position = tail.get();
+    if (position - headCache >= capacity)
+    {
+      headCache = head.get();
+      if (position - headCache >= capacity)
+        return -1;
+    } // End if
+
+    tail.lazySet(position + 1);
+    return position;
+
+  } // End ‘claimAlone()’ Method
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  /**
+   * Claims the next slot against any other producers.
+   *
+   * @return The position claimed (-1 if the ring is full).
+   */
+  private long claim()
+  {
+
+    while (true)
+    {
+      long position = tail.get();
+      if (position - head.get() >= capacity)
+        return -1;
+      if (tail.compareAndSet(position, position + 1))
+        return position;
+    } // End while
+
+  } // End ‘claim()’ Method
+
+// --------------------------------------------- RingInbox Class ---------------
+
+  private void resumeIfDrained()
+  {
+
+    if (holdingBack.get() && size() <= lowWatermark &&
+      holdingBack.compareAndSet(true, false))
+      transport.resumeReading();
+
+  } // End ‘resumeIfDrained()’ Method
+
+// --------------------------------------------- RingInbox Class ---------------
+
+} // End ‘RingInbox’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
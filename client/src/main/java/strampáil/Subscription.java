@@ -0,0 +1,157 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>Subscription</code> records one destination that a
+ * {@link ClientInterface} has subscribed to, under the id the server tags its
+ * <code>MESSAGE</code> frames with, along with whatever acknowledges its
+ * messages and whatever they are handed to.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+class Subscription
+{
+
+// ------------------------------------------ Subscription Class ---------------
+
+  private final String destination;
+  private final int ackMode;
+  private final Dispatcher dispatcher;
+  private final FramePublisher publisher;
+  private final StreamListener streamListener;
+  private String id;
+  private Acknowledger acknowledger;
+
+// ------------------------------------------ Subscription Class ---------------
+
+  /**
+   * @param ackMode One of {@link Constants#AUTO_ACK},
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}.
+   * @param dispatcher What hands messages to the subscription's listener
+   * (<code>null</code> to use the retrieval system).
+   */
+  Subscription(String destination, int ackMode, Dispatcher dispatcher)
+  {
+    this(destination, ackMode, dispatcher, null, null);
+  } // End ‘Subscription(String, int, Dispatcher)’ Constructor
+
+// ------------------------------------------ Subscription Class ---------------
+
+  /**
+   * @param ackMode One of {@link Constants#AUTO_ACK},
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}.
+   * @param publisher What publishes messages to the subscription's
+   * {@link java.util.concurrent.Flow.Subscriber}.
+   */
+  Subscription(String destination, int ackMode, FramePublisher publisher)
+  {
+    this(destination, ackMode, null, publisher, null);
+  } // End ‘Subscription(String, int, FramePublisher)’ Constructor
+
+// ------------------------------------------ Subscription Class ---------------
+
+  /**
+   * @param ackMode One of {@link Constants#AUTO_ACK},
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}.
+   * @param dispatcher What hands messages to the subscription's listener
+   * once their bodies have been gathered.
+   * @param streamListener The listener, for the receiving thread to stream
+   * bodies to instead where it can.
+   */
+  Subscription(String destination, int ackMode, Dispatcher dispatcher,
+    StreamListener streamListener)
+  {
+    this(destination, ackMode, dispatcher, null, streamListener);
+  } // End ‘Subscription(String, int, Dispatcher, StreamListener)’ Constructor
+
+// ------------------------------------------ Subscription Class ---------------
+
+  private Subscription(String destination, int ackMode, Dispatcher dispatcher,
+    FramePublisher publisher, StreamListener streamListener)
+  {
+
+    this.destination = destination;
+    this.ackMode = ackMode;
+    this.dispatcher = dispatcher;
+    this.publisher = publisher;
+    this.streamListener = streamListener;
+    id = null;
+    acknowledger = null;
+
+  } // End ‘Subscription(String, int, Dispatcher, FramePublisher, StreamListener)’ Constructor
+
+// ------------------------------------------ Subscription Class ---------------
+
+  /**
+   * Sets the id of this subscription, and what batches up its
+   * acknowledgements. This must be done before the subscription is made
+   * known to the receiving thread.
+   *
+   * @param acknowledger The acknowledger (<code>null</code> if the server
+   * needs no acknowledgements).
+   */
+  void register(String id, Acknowledger acknowledger)
+  {
+    this.id = id;
+    this.acknowledger = acknowledger;
+  } // End ‘register(String, Acknowledger)’ Method
+
+// ------------------------------------------ Subscription Class ---------------
+
+  String getId()
+  {
+    return id;
+  } // End ‘getId()’ Method
+
+// ------------------------------------------ Subscription Class ---------------
+
+  String getDestination()
+  {
+    return destination;
+  } // End ‘getDestination()’ Method
+
+// ------------------------------------------ Subscription Class ---------------
+
+  int getAckMode()
+  {
+    return ackMode;
+  } // End ‘getAckMode()’ Method
+
+// ------------------------------------------ Subscription Class ---------------
+
+  Dispatcher getDispatcher()
+  {
+    return dispatcher;
+  } // End ‘getDispatcher()’ Method
+
+// ------------------------------------------ Subscription Class ---------------
+
+  FramePublisher getPublisher()
+  {
+    return publisher;
+  } // End ‘getPublisher()’ Method
+
+// ------------------------------------------ Subscription Class ---------------
+
+  StreamListener getStreamListener()
+  {
+    return streamListener;
+  } // End ‘getStreamListener()’ Method
+
+// ------------------------------------------ Subscription Class ---------------
+
+  Acknowledger getAcknowledger()
+  {
+    return acknowledger;
+  } // End ‘getAcknowledger()’ Method
+
+// ------------------------------------------ Subscription Class ---------------
+
+} // End ‘Subscription’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
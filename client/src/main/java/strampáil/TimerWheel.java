@@ -0,0 +1,235 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>TimerWheel</code> runs the heart-beat timers of every connection in
+ * the JVM on one shared daemon thread. Timeouts are dropped into the slot of
+ * a hashed wheel that turns once every {@link #TICK} milliseconds, so setting
+ * or cancelling one costs the same however many are pending; the price is
+ * that a timeout may fire up to one tick late. While no timeouts are pending
+ * the thread sleeps.
+ * <p>
+ * Tasks run on the wheel thread itself, so must be quick and must never
+ * block.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class TimerWheel extends Thread
+{
+
+// -------------------------------------------- TimerWheel Class ---------------
+
+  /** How often the wheel turns (in milliseconds). */
+  static final long TICK = 10;
+
+  private static final int WHEEL_SIZE = 512; // Must be a power of two.
+  private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK);
+  private static final TimerWheel wheel = createWheel();
+
+  private final Timeout[] slots;
+  private final ConcurrentLinkedQueue<Timeout> added;
+  private final AtomicInteger pending;
+  private final long start;
+  private long tick;
+
+// -------------------------------------------- TimerWheel Class ---------------
+
+  private TimerWheel()
+  {
+
+    super("strampáil-wheel");
+    setDaemon(true);
+
+    slots = new Timeout[WHEEL_SIZE];
+    added = new ConcurrentLinkedQueue<Timeout>();
+    pending = new AtomicInteger(0);
+    start = System.nanoTime();
+    tick = 0;
+
+  } // End ‘TimerWheel()’ Constructor
+
+// -------------------------------------------- TimerWheel Class ---------------
+
+  /**
+   * Runs a task once, after a delay.
+   *
+   * @param task The task to be run.
+   * @param delay The delay in milliseconds.
+   * @return A handle with which the task can be cancelled.
+   */
+  static Timeout schedule(Runnable task, long delay)
+  {
+
+    Timeout timeout = new Timeout(
+      task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+
+    wheel.added.add(timeout);
+    if (wheel.pending.getAndIncrement() == 0)
+      LockSupport.unpark(wheel); // It may have been asleep.
+
+    return timeout;
+
+  } // End ‘schedule(Runnable, long)’ Method
+
+// -------------------------------------------- TimerWheel Class ---------------
+
+  public void run()
+  {
+
+    while (true)
+    {
+
+      if (pending.get() == 0)
+      {
+        LockSupport.park(this);
+        tick = (System.nanoTime() - start) / TICK_NANOS;
+      } // End if
+
+      long wait = start + (tick + 1) * TICK_NANOS - System.nanoTime();
+      while (wait > 0)
+      {
+        LockSupport.parkNanos(this, wait);
+        wait = start + (tick + 1) * TICK_NANOS - System.nanoTime();
+      } // End while
+
+      tick++;
+      placeAdded();
+      expire((int) (tick & (WHEEL_SIZE - 1)));
+
+    } // End while
+
+  } // End ‘run()’ Method
+
+// -------------------------------------------- TimerWheel Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// -------------------------------------------- TimerWheel Class ---------------
+
+  /**
+   * Moves newly scheduled timeouts into the slots they fall due in. Anything
+   * already due goes into the current slot.
+   */
+  private void placeAdded()
+  {
+
+    Timeout timeout = added.poll();
+    while (timeout != null)
+    {
+      long due = (timeout.deadline - start + TICK_NANOS - 1) / TICK_NANOS;
+      if (due < tick)
+        due = tick;
+
+      int slot = (int) (due & (WHEEL_SIZE - 1));
+      timeout.rounds = (due - tick) / WHEEL_SIZE;
+      timeout.next = slots[slot];
+      slots[slot] = timeout;
+
+      timeout = added.poll();
+    } // End while
+
+  } // End ‘placeAdded()’ Method
+
+// -------------------------------------------- TimerWheel Class ---------------
+
+  private void expire(int slot)
+  {
+
+    Timeout previous = null;
+    Timeout timeout = slots[slot];
+
+    while (timeout != null)
+    {
+      Timeout next = timeout.next;
+
+      if (timeout.cancelled || timeout.rounds == 0)
+      {
+        if (previous == null)
+          slots[slot] = next;
+        else
+          previous.next = next;
+        pending.decrementAndGet();
+
+        if (!timeout.cancelled)
+          try
+          {
+            timeout.task.run();
+          } // End try
+
+          catch (RuntimeException re)
+          {
+            Printer.printError("Timer task failed: " + re);
+          } // End ‘RuntimeException’ catch
+      } // End if
+      else
+      {
+        timeout.rounds--;
+        previous = timeout;
+      } // End else
+
+      timeout = next;
+    } // End while
+
+  } // End ‘expire(int)’ Method
+
+// -------------------------------------------- TimerWheel Class ---------------
+
+  private static TimerWheel createWheel()
+  {
+
+    TimerWheel timerWheel = new TimerWheel();
+    timerWheel.start();
+
+    return timerWheel;
+
+  } // End ‘createWheel()’ Method
+
+// -------------------------------------------- TimerWheel Class ---------------
+
+// =============================================== Timeout Class ===============
+
+// -------------------------------------------- TimerWheel Class ---------------
+
+  /**
+   * A <code>Timeout</code> is a task waiting on the wheel.
+   */
+  static final class Timeout
+  {
+
+    private final Runnable task;
+    private final long deadline;
+    private volatile boolean cancelled;
+    private long rounds; // Only touched by the wheel thread.
+    private Timeout next;
+
+    private Timeout(Runnable task, long deadline)
+    {
+      this.task = task;
+      this.deadline = deadline;
+      cancelled = false;
+    } // End ‘Timeout(Runnable, long)’ Constructor
+
+    /**
+     * Stops the task from being run, if it has not been already.
+     */
+    void cancel()
+    {
+      cancelled = true;
+    } // End ‘cancel()’ Method
+
+  } // End ‘Timeout’ Class
+
+// -------------------------------------------- TimerWheel Class ---------------
+
+} // End ‘TimerWheel’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,134 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>BodySpool</code> gathers the body of a frame too large to be kept
+ * on the heap in a temporary file, chunk by chunk as it comes off the
+ * socket, and maps the file into memory once the body is complete. The
+ * file is opened to be deleted once closed (on most platforms it is gone
+ * from its directory at once), and is closed as soon as it has been mapped;
+ * the mapping itself lasts for as long as the frame does.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class BodySpool
+{
+
+// --------------------------------------------- BodySpool Class ---------------
+
+  private final FileChannel channel;
+  private long size;
+
+// --------------------------------------------- BodySpool Class ---------------
+
+  /**
+   * @throws IOException If the temporary file cannot be created.
+   */
+  BodySpool() throws IOException
+  {
+
+    Path file = Files.createTempFile("strampáil-", ".body");
+    try
+    {
+      channel = FileChannel.open(file, StandardOpenOption.READ,
+        StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+    } // End try
+
+    catch (IOException ioe)
+    {
+      Files.deleteIfExists(file);
+      throw ioe;
+    } // End ‘IOException’ catch
+
+    size = 0;
+
+  } // End ‘BodySpool()’ Constructor
+
+// --------------------------------------------- BodySpool Class ---------------
+
+  /**
+   * Adds the next chunk of the body.
+   *
+   * @throws IOException If the chunk cannot be written.
+   */
+  void write(byte[] bytes, int offset, int length) throws IOException
+  {
+
+    ByteBuffer chunk = ByteBuffer.wrap(bytes, offset, length);
+    while (chunk.hasRemaining())
+      channel.write(chunk);
+
+    size += length;
+
+  } // End ‘write(byte[], int, int)’ Method
+
+// --------------------------------------------- BodySpool Class ---------------
+
+  /**
+   * @return The number of bytes gathered so far.
+   */
+  long size()
+  {
+    return size;
+  } // End ‘size()’ Method
+
+// --------------------------------------------- BodySpool Class ---------------
+
+  /**
+   * Maps the completed body into memory, and lets go of the file.
+   *
+   * @return A read-only view of the body.
+   * @throws IOException If the file cannot be mapped.
+   */
+  ByteBuffer finish() throws IOException
+  {
+
+    try
+    {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    } // End try
+
+    finally
+    {
+      discard();
+    } // End finally
+
+  } // End ‘finish()’ Method
+
+// --------------------------------------------- BodySpool Class ---------------
+
+  /**
+   * Lets go of the file, along with anything gathered that has not been
+   * mapped. This may be called more than once.
+   */
+  void discard()
+  {
+
+    try
+    {
+      channel.close();
+    } // End try
+
+    catch (IOException ioe)
+    {
+      Printer.printError("I/O error when closing spooled frame body.");
+    } // End ‘IOException’ catch
+
+  } // End ‘discard()’ Method
+
+// --------------------------------------------- BodySpool Class ---------------
+
+} // End ‘BodySpool’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,81 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>BufferPool</code> hands out direct {@link ByteBuffer}s for encoding
+ * outgoing frames into, and takes them back once they have been written, so
+ * that a steady stream of frames does not allocate (or have to zero) a fresh
+ * buffer each time. Direct buffers can be passed to the socket without the
+ * copy the JDK makes for heap buffers.
+ * <p>
+ * Frames too big for a pooled buffer get a one-off heap buffer instead.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class BufferPool
+{
+
+// -------------------------------------------- BufferPool Class ---------------
+
+  /** The size of each pooled buffer (8kiB). */
+  static final int BUFFER_SIZE = 8192;
+  /** The most buffers the pool keeps hold of while they are idle. */
+  static final int POOL_LIMIT = 1024;
+
+  private static final ArrayBlockingQueue<ByteBuffer> idle =
+    new ArrayBlockingQueue<ByteBuffer>(POOL_LIMIT);
+
+// -------------------------------------------- BufferPool Class ---------------
+
+  private BufferPool(){}
+
+// -------------------------------------------- BufferPool Class ---------------
+
+  /**
+   * Provides an empty buffer with room for at least the given number of
+   * bytes.
+   *
+   * @param size The number of bytes needed.
+   * @return The buffer, ready to be written into.
+   */
+  static ByteBuffer acquire(int size)
+  {
+
+    if (size > BUFFER_SIZE)
+      return ByteBuffer.allocate(size);
+
+    ByteBuffer buffer = idle.poll();
+    if (buffer == null)
+      return ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    buffer.clear();
+    return buffer;
+
+  } // End ‘acquire(int)’ Method
+
+// -------------------------------------------- BufferPool Class ---------------
+
+  /**
+   * Returns a buffer to the pool once everything in it has been written.
+   * Buffers that did not come from the pool are simply dropped.
+   *
+   * @param buffer The buffer to be returned.
+   */
+  static void release(ByteBuffer buffer)
+  {
+    if (buffer.isDirect() && buffer.capacity() == BUFFER_SIZE)
+      idle.offer(buffer);
+  } // End ‘release(ByteBuffer)’ Method
+
+// -------------------------------------------- BufferPool Class ---------------
+
+} // End ‘BufferPool’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
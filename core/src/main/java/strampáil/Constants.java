@@ -0,0 +1,86 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * Contains many constants referred to throughout the package.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé hAoine, 22ú Aibreán 2016
+ */
+public interface Constants
+{
+
+// ----------------------------------------- Constants Interface ---------------
+
+  /** Show no messages at all */
+  public static final int NONE = 4;
+  /** Show only error level messages */
+  public static final int ERROR = 3;
+  /** Show error and warning level messages */
+  public static final int WARNING = 2;
+  /** Show error, warning and info level messages */
+  public static final int INFO = 1;
+  /** Show all messages */
+  public static final int DEBUG = 0;
+
+  /** Parse incoming frames straight off the socket, one byte at a time */
+  public static final int STREAMED_DECODER = 0;
+  /** Parse incoming frames from bulk reads into a reusable buffer */
+  public static final int BUFFERED_DECODER = 1;
+
+  /** Use a blocking socket with a listener thread per connection */
+  public static final int BLOCKING_TRANSPORT = 0;
+  /** Use a non-blocking channel on a shared pool of event loop threads */
+  public static final int NIO_TRANSPORT = 1;
+
+  /** Let the server treat messages as acknowledged once sent */
+  public static final int AUTO_ACK = 0;
+  /** Acknowledge messages cumulatively, each ACK covering all before it */
+  public static final int CLIENT_ACK = 1;
+  /** Acknowledge every message on its own */
+  public static final int CLIENT_INDIVIDUAL_ACK = 2;
+
+  /** Stop reading from the server while the inbox is full */
+  public static final int BLOCK_WHEN_FULL = 0;
+  /** Make room in a full inbox by dropping its oldest message */
+  public static final int DROP_OLDEST = 1;
+  /** Drop messages that arrive while the inbox is full */
+  public static final int DROP_NEWEST = 2;
+  /** Write messages that arrive while the inbox is full to disk */
+  public static final int SPILL_TO_DISK = 3;
+
+  /** Keep the inbox in a queue guarded by a lock */
+  public static final int LOCKED_INBOX = 0;
+  /** Keep the inbox in a lock-free ring with one producer and one consumer */
+  public static final int SPSC_INBOX = 1;
+  /** Keep the inbox in a lock-free ring with many producers, one consumer */
+  public static final int MPSC_INBOX = 2;
+
+  /** Call listeners on the thread that receives their messages */
+  public static final int DIRECT_DELIVERY = 0;
+  /** Call listeners on a thread of the client's own */
+  public static final int DEDICATED_DELIVERY = 1;
+  /** Call listeners on a pool of threads shared by every client */
+  public static final int POOLED_DELIVERY = 2;
+
+  /** Receive and deliver messages on ordinary (platform) threads */
+  public static final int PLATFORM_THREADS = 0;
+  /** Receive and deliver messages on virtual threads (Java 21 onwards) */
+  public static final int VIRTUAL_THREADS = 1;
+
+  /** Keep no metrics */
+  public static final int NO_METRICS = 0;
+  /** Keep metrics, to be read through the client */
+  public static final int POLLED_METRICS = 1;
+  /** Keep metrics, and publish them over JMX as well */
+  public static final int JMX_METRICS = 2;
+
+// ----------------------------------------- Constants Interface ---------------
+
+} // End ‘Constants’ Interface
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,277 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>Frame</code> is a single STOMP frame received from the server.
+ * The headers and body are kept as slices of the buffer they were received
+ * into, and are only decoded into {@link String}s when asked for, so
+ * binary or large payloads can be handled without a UTF-8 decode or copy.
+ * The headers are located by a {@link HeaderIndex}, built the first time
+ * any is asked for.
+ * <p>
+ * Frames are immutable: the bytes behind them are never overwritten once
+ * the frame has been handed out.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+public class Frame
+{
+
+// ------------------------------------------------- Frame Class ---------------
+
+  private final String command;
+  private final byte[] buffer;
+  private final int headerOffset, headerLength, bodyOffset, bodyLength;
+  private final ByteBuffer mappedBody;
+  private volatile HeaderIndex index;
+  private volatile Map<String, String> headers;
+  private volatile String body;
+
+// ------------------------------------------------- Frame Class ---------------
+
+  /**
+   * Creates a frame over a region of a receive buffer. The header block
+   * (one <code>key:value</code> line per header, each ending in
+   * <code>'\n'</code>) is decoded lazily.
+   */
+  Frame(String command, byte[] buffer, int headerOffset, int headerLength,
+    int bodyOffset, int bodyLength)
+  {
+
+    this.command = command;
+    this.buffer = buffer;
+    this.headerOffset = headerOffset;
+    this.headerLength = headerLength;
+    this.bodyOffset = bodyOffset;
+    this.bodyLength = bodyLength;
+    mappedBody = null;
+    index = null;
+    headers = null;
+    body = null;
+
+  } // End ‘Frame(String, byte[], int, int, int, int)’ Constructor
+
+// ------------------------------------------------- Frame Class ---------------
+
+  /**
+   * Creates a frame whose body has been spooled off the heap.
+   *
+   * @param headerBlock The header block, laid out as it was received.
+   * @param body The body, mapped in from a {@link BodySpool}.
+   */
+  Frame(String command, byte[] headerBlock, ByteBuffer body)
+  {
+
+    this.command = command;
+    buffer = headerBlock;
+    headerOffset = 0;
+    headerLength = headerBlock.length;
+    bodyOffset = 0;
+    bodyLength = body.remaining();
+    mappedBody = body;
+    index = null;
+    headers = null;
+    this.body = null;
+
+  } // End ‘Frame(String, byte[], ByteBuffer)’ Constructor
+
+// ------------------------------------------------- Frame Class ---------------
+
+  /**
+   * Creates a frame from headers that have already been decoded.
+   */
+  Frame(String command, HashMap<String, String> headers, byte[] body)
+  {
+
+    this.command = command;
+    this.buffer = body;
+    headerOffset = 0;
+    headerLength = 0;
+    bodyOffset = 0;
+    bodyLength = body.length;
+    mappedBody = null;
+    index = null;
+    this.headers = Collections.unmodifiableMap(headers);
+    this.body = null;
+
+  } // End ‘Frame(String, HashMap<String, String>, byte[])’ Constructor
+
+// ------------------------------------------------- Frame Class ---------------
+
+  /**
+   * @return The command of this frame (e.g. <code>MESSAGE</code>).
+   */
+  public String getCommand()
+  {
+    return command;
+  } // End ‘getCommand()’ Method
+
+// ------------------------------------------------- Frame Class ---------------
+
+  /**
+   * Retrieves the (decoded) value of a single header. Only that header's
+   * value is decoded, and only the first time it is asked for, so routing a
+   * frame on a header or two stays cheap.
+   *
+   * @param name The name of the header.
+   * @return The value (<code>null</code> if the header is absent).
+   */
+  public String getHeader(String name)
+  {
+
+    Map<String, String> decoded = headers;
+    if (decoded != null)
+      return decoded.get(name);
+
+    return index().get(name);
+
+  } // End ‘getHeader(String)’ Method
+
+// ------------------------------------------------- Frame Class ---------------
+
+  /**
+   * Retrieves all of the headers of this frame, decoding them on first use.
+   *
+   * @return An unmodifiable map of header names to values.
+   */
+  public Map<String, String> getHeaders()
+  {
+
+    Map<String, String> decoded = headers;
+    if (decoded == null)
+    {
+      decoded = Collections.unmodifiableMap(index().toMap());
+      headers = decoded;
+    } // End if
+
+    return decoded;
+
+  } // End ‘getHeaders()’ Method
+
+// ------------------------------------------------- Frame Class ---------------
+
+  /**
+   * @return A read-only view of the raw (still escaped) header block.
+   */
+  public ByteBuffer getHeaderBytes()
+  {
+    return ByteBuffer.wrap(buffer, headerOffset, headerLength)
+      .slice().asReadOnlyBuffer();
+  } // End ‘getHeaderBytes()’ Method
+
+// ------------------------------------------------- Frame Class ---------------
+
+  /**
+   * @return A read-only view of the body, with no copy made. The body of a
+   * frame larger than the client keeps on the heap is a view of a
+   * memory-mapped file.
+   * @see ClientInterface#setFrameLimits(int, int)
+   */
+  public ByteBuffer getBody()
+  {
+
+    if (mappedBody != null)
+      return mappedBody.duplicate();
+
+    return ByteBuffer.wrap(buffer, bodyOffset, bodyLength)
+      .slice().asReadOnlyBuffer();
+
+  } // End ‘getBody()’ Method
+
+// ------------------------------------------------- Frame Class ---------------
+
+  /**
+   * @return The length of the body in bytes.
+   */
+  public int getBodyLength()
+  {
+    return bodyLength;
+  } // End ‘getBodyLength()’ Method
+
+// ------------------------------------------------- Frame Class ---------------
+
+  /**
+   * @return How many bytes the frame took up on the wire: its command,
+   * header block and body, with the line breaks and <code>NUL</code> octet
+   * between them (but not counting any carriage returns).
+   */
+  int getWireLength()
+  {
+    return command.length() + headerLength + bodyLength + 3;
+  } // End ‘getWireLength()’ Method
+
+// ------------------------------------------------- Frame Class ---------------
+
+  /**
+   * Decodes the body as UTF-8 text. The result is cached, so only the first
+   * call pays for the decode.
+   *
+   * @return The body as a {@link String}.
+   */
+  public String getBodyAsString()
+  {
+
+    String decoded = body;
+    if (decoded == null)
+    {
+      if (mappedBody != null)
+        decoded = StandardCharsets.UTF_8.decode(getBody()).toString();
+      else
+        decoded = new String(
+          buffer, bodyOffset, bodyLength, StandardCharsets.UTF_8);
+      body = decoded;
+    } // End if
+
+    return decoded;
+
+  } // End ‘getBodyAsString()’ Method
+
+// ------------------------------------------------- Frame Class ---------------
+
+  public String toString()
+  {
+
+    StringBuilder frame = new StringBuilder(command + "\n");
+    for (Map.Entry<String, String> header : getHeaders().entrySet())
+      frame.append(header.getKey() + ":" + header.getValue() + "\n");
+
+    return frame.append("\n" + getBodyAsString()).toString();
+
+  } // End ‘toString()’ Method
+
+// ------------------------------------------------- Frame Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ------------------------------------------------- Frame Class ---------------
+
+  private HeaderIndex index()
+  {
+
+    HeaderIndex indexed = index;
+    if (indexed == null)
+    {
+      indexed =
+        new HeaderIndex(buffer, headerOffset, headerOffset + headerLength);
+      index = indexed;
+    } // End if
+
+    return indexed;
+
+  } // End ‘index()’ Method
+
+// ------------------------------------------------- Frame Class ---------------
+
+} // End ‘Frame’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,648 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.InputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>FrameDecoder</code> pulls STOMP frames out of a reusable receive
+ * buffer. Bytes are read from the server in bulk and then scanned for the
+ * <code>'\n'</code>, <code>':'</code> and <code>NUL</code> delimiters, rather
+ * than being read off the socket one at a time.
+ * <p>
+ * A frame may be split across any number of reads, and one read may carry
+ * several frames; the decoder remembers how far it has scanned so that no
+ * byte is looked at twice while waiting for the rest of a frame.
+ * <p>
+ * Decoded {@link Frame}s are slices of the receive buffer. Once a frame has
+ * been handed out, the bytes under it are never written again: when the
+ * buffer fills up, the partial frame at its tail is carried over into a fresh
+ * buffer instead of being compacted in place.
+ * <p>
+ * A frame too big for the buffer has the buffer grown to fit it, up to the
+ * maximum frame size; the buffer goes back to its usual size once the frame
+ * has been handed out. A body larger than the heap limit is not kept in
+ * the buffer at all, but passed through it into a {@link BodySpool}.
+ * <p>
+ * A <code>MESSAGE</code> frame may instead be handed out as soon as its
+ * headers are in, with an empty body, for its body to be read through
+ * {@link #remainder(InputStream)} before the next frame is decoded.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+class FrameDecoder
+{
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /** The default size of the receive buffer (64kiB). */
+  static final int DEFAULT_CAPACITY = 65536;
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * Commands either end may send, resolved without building a new String
+   * (those a server sends first, being what a client decodes).
+   */
+  private static final String[] COMMANDS = {"MESSAGE", "RECEIPT", "ERROR",
+    "CONNECTED", "SEND", "ACK", "NACK", "SUBSCRIBE", "UNSUBSCRIBE",
+    "CONNECT", "STOMP", "DISCONNECT"};
+  private static final byte[][] COMMAND_BYTES = encodeAll(COMMANDS);
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  private final int capacity, maxFrameSize, maxHeapBody;
+  private byte[] buffer;
+  private ByteBuffer view;
+  private int start, limit, scan, headerEnd, contentLength;
+  private boolean shared;
+  private String command;
+  private BodySpool spool;
+  private String spoolCommand;
+  private byte[] spoolHeaders;
+  private long spoolRemaining, spoolLimit;
+  private IOException failure;
+  private Predicate<Frame> streamed;
+  private boolean streaming;
+  private int streamLength;
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * @param capacity The usual size of the receive buffer.
+   * @param maxFrameSize The size of the largest frame accepted, in bytes.
+   * @param maxHeapBody The size of the largest body kept on the heap; any
+   * larger is spooled to a memory-mapped file.
+   */
+  FrameDecoder(int capacity, int maxFrameSize, int maxHeapBody)
+  {
+
+    this.capacity = capacity;
+    this.maxFrameSize = maxFrameSize;
+    this.maxHeapBody = maxHeapBody;
+    buffer = new byte[capacity];
+    view = null;
+    shared = false;
+    start = 0;
+    limit = 0;
+    scan = 0;
+    headerEnd = -1;
+    contentLength = -1;
+    spool = null;
+    spoolCommand = null;
+    spoolHeaders = null;
+    spoolRemaining = -1;
+    spoolLimit = 0;
+    failure = null;
+    streamed = null;
+    streaming = false;
+    streamLength = -1;
+
+  } // End ‘FrameDecoder(int, int, int)’ Constructor
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * Reads as many bytes as are available from the stream into the free space
+   * at the end of the buffer, making room first if the buffer is full.
+   *
+   * @param in The stream to read from.
+   * @return The number of bytes read, or <code>-1</code> at end of stream.
+   * @throws IOException If the read fails, or if a frame is larger than the
+   * maximum frame size or its body could not be spooled.
+   */
+  int fill(InputStream in) throws IOException
+  {
+
+    makeRoom();
+
+    int count = in.read(buffer, limit, buffer.length - limit);
+    if (count > 0)
+      limit += count;
+
+    return count;
+
+  } // End ‘fill(InputStream)’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * Reads as many bytes as are available from the channel into the free
+   * space at the end of the buffer, making room first if the buffer is full.
+   * For a non-blocking channel this may read nothing.
+   *
+   * @param in The channel to read from.
+   * @return The number of bytes read, or <code>-1</code> at end of stream.
+   * @throws IOException If the read fails, or if a frame is larger than the
+   * maximum frame size or its body could not be spooled.
+   */
+  int fill(ReadableByteChannel in) throws IOException
+  {
+
+    makeRoom();
+
+    if (view == null || view.array() != buffer)
+      view = ByteBuffer.wrap(buffer);
+    view.limit(buffer.length);
+    view.position(limit);
+
+    int count = in.read(view);
+    if (count > 0)
+      limit += count;
+
+    return count;
+
+  } // End ‘fill(ReadableByteChannel)’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * Decodes the next complete frame held in the buffer, if there is one.
+   * Should the frame turn out to be too large, or its body fail to spool,
+   * the next call to <code>fill</code> says so.
+   *
+   * @return The frame (<code>null</code> if no complete frame is buffered).
+   */
+  Frame next()
+  {
+
+    streaming = false;
+
+    if (failure != null)
+      return null;
+    else if (spool != null)
+      return spoolBody();
+    else if (headerEnd < 0 && !findHeaderEnd())
+      return null;
+
+    int bodyStart = headerEnd + 1;
+    if (streamed != null && command.equals("MESSAGE"))
+    {
+      Frame head = startStream(bodyStart);
+      if (head != null)
+        return head;
+    } // End if
+
+    if (contentLength > maxHeapBody)
+      return startSpool(bodyStart);
+
+    int index = scan;
+    if (contentLength >= 0 && index < bodyStart + contentLength)
+      index = bodyStart + contentLength;
+
+    while (index < limit && buffer[index] != 0)
+      index++;
+
+    if (index >= limit)
+    {
+      scan = limit;
+      if (contentLength < 0 && limit - bodyStart > maxHeapBody)
+        return startSpool(bodyStart);
+      return null;
+    } // End if
+
+    if (index + 1 - start > maxFrameSize)
+      return fail(tooLarge());
+
+    if (contentLength >= 0 && index != bodyStart + contentLength)
+      Printer.printWarning(
+        "content-length header mismatch (more data in frame)");
+
+    int headerStart = indexOf('\n', start, headerEnd) + 1;
+    int bodyLength = contentLength >= 0 ? contentLength : index - bodyStart;
+    Frame frame = new Frame(command, buffer, headerStart,
+      headerEnd - headerStart, bodyStart, bodyLength);
+    shared = true;
+
+    start = index + 1;
+    scan = start;
+    headerEnd = -1;
+    contentLength = -1;
+
+    return frame;
+
+  } // End ‘next()’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * Picks out the <code>MESSAGE</code> frames whose bodies are to be
+   * streamed rather than decoded.
+   *
+   * @param selector Handed the head of each <code>MESSAGE</code> frame (its
+   * body still empty) once its headers are in (<code>null</code> to stream
+   * none).
+   */
+  void streamWhere(Predicate<Frame> selector)
+  {
+    streamed = selector;
+  } // End ‘streamWhere(Predicate<Frame>)’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * @return Whether the frame last handed out is the head of one whose body
+   * is to be streamed.
+   */
+  boolean isStreaming()
+  {
+    return streaming;
+  } // End ‘isStreaming()’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * @return The <code>content-length</code> of the frame being streamed
+   * (<code>-1</code> if it has none).
+   */
+  int streamLength()
+  {
+    return streamLength;
+  } // End ‘streamLength()’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * Reads on from where the last frame handed out left off: first whatever
+   * is left in the buffer, and then the stream itself. Single bytes are
+   * read through the buffer, refilling it as need be; larger reads go
+   * straight to the stream once the buffer is used up.
+   *
+   * @param in The stream the buffer is filled from.
+   * @return A view of the stream, to be read from before the next frame is
+   * decoded.
+   */
+  InputStream remainder(final InputStream in)
+  {
+
+    return new InputStream()
+    {
+      public int read() throws IOException
+      {
+        if (start == limit && fill(in) == -1)
+          return -1;
+        int symbol = buffer[start++] & 0xff;
+        scan = start;
+        return symbol;
+      } // End ‘read()’ Method
+
+      public int read(byte[] into, int offset, int length) throws IOException
+      {
+        if (start == limit)
+          return in.read(into, offset, length);
+        int count = Math.min(length, limit - start);
+        System.arraycopy(buffer, start, into, offset, count);
+        start += count;
+        scan = start;
+        return count;
+      } // End ‘read(byte[], int, int)’ Method
+
+      public int available() throws IOException
+      {
+        return start < limit ? limit - start : in.available();
+      } // End ‘available()’ Method
+    };
+
+  } // End ‘remainder(InputStream)’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * Resolves the command line of a frame, sharing one {@link String} for
+   * each command.
+   */
+  static String resolveCommand(byte[] buffer, int from, int to)
+  {
+
+    for (int index = 0; index < COMMANDS.length; index++)
+      if (COMMAND_BYTES[index].length == to - from &&
+        startsWith(buffer, COMMAND_BYTES[index], from))
+        return COMMANDS[index];
+
+    return new String(buffer, from, to - from, StandardCharsets.UTF_8);
+
+  } // End ‘resolveCommand(byte[], int, int)’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  private boolean findHeaderEnd()
+  {
+
+    while (true)
+    {
+      if (scan == start)
+      {
+        // Skip any end-of-lines (heart-beats) lying between frames.
+        while (start < limit &&
+          (buffer[start] == '\n' || buffer[start] == '\r'))
+          start++;
+        scan = start;
+      } // End if
+
+      int index = scan;
+      while (index < limit && buffer[index] != 0 &&
+        !(buffer[index] == '\n' && index > start && buffer[index - 1] == '\n'))
+        index++;
+
+      if (index == limit)
+      {
+        scan = index;
+        return false;
+      } // End if
+
+      if (buffer[index] == 0)
+      {
+        // NUL before the end of the headers: drop the fragment and move on.
+        malformedSTOMP();
+        start = index + 1;
+        scan = start;
+        continue;
+      } // End if
+
+      headerEnd = index;
+      scan = index + 1;
+      parseHead();
+      return true;
+    } // End while
+
+  } // End ‘findHeaderEnd()’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  private void parseHead()
+  {
+
+    int lineEnd = indexOf('\n', start, headerEnd);
+    command = resolveCommand(buffer, start, lineEnd);
+    contentLength = HeaderIndex.contentLength(buffer, lineEnd + 1, headerEnd);
+
+  } // End ‘parseHead()’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * Hands out the head of a <code>MESSAGE</code> frame, should its body be
+   * streamed, leaving the body in the buffer.
+   *
+   * @return The head (<code>null</code> if the body is to be decoded).
+   */
+  private Frame startStream(int bodyStart)
+  {
+
+    int headerStart = indexOf('\n', start, headerEnd) + 1;
+    Frame head = new Frame(command, buffer, headerStart,
+      headerEnd - headerStart, bodyStart, 0);
+    if (!streamed.test(head))
+      return null;
+
+    shared = true;
+    streaming = true;
+    streamLength = contentLength;
+
+    start = bodyStart;
+    scan = start;
+    headerEnd = -1;
+    contentLength = -1;
+
+    return head;
+
+  } // End ‘startStream(int)’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * Moves a frame whose body is too large for the heap over to a spool,
+   * keeping a copy of its headers.
+   */
+  private Frame startSpool(int bodyStart)
+  {
+
+    int headerStart = indexOf('\n', start, headerEnd) + 1;
+    spoolHeaders = Arrays.copyOfRange(buffer, headerStart, headerEnd);
+    spoolCommand = command;
+    spoolRemaining = contentLength;
+    spoolLimit = (long) maxFrameSize - (bodyStart - start);
+
+    start = bodyStart;
+    scan = start;
+    headerEnd = -1;
+    contentLength = -1;
+
+    if (spoolRemaining > spoolLimit)
+      return fail(tooLarge());
+
+    try
+    {
+      spool = new BodySpool();
+    } // End try
+
+    catch (IOException ioe)
+    {
+      Printer.printError("Unable to spool frame body to disk.");
+      return fail(ioe);
+    } // End ‘IOException’ catch
+
+    return spoolBody();
+
+  } // End ‘startSpool(int)’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * Passes whatever of a spooled body is in the buffer on to the spool.
+   *
+   * @return The frame, once its body is complete (<code>null</code> until
+   * then).
+   */
+  private Frame spoolBody()
+  {
+
+    try
+    {
+      if (spoolRemaining != 0)
+      {
+        int end = spoolRemaining < 0 ? indexOf(0, start, limit) :
+          (int) Math.min(limit, start + spoolRemaining);
+        spool.write(buffer, start, end - start);
+        if (spoolRemaining > 0)
+          spoolRemaining -= end - start;
+        start = end;
+        scan = start;
+
+        if (spool.size() > spoolLimit)
+          return fail(tooLarge());
+        if (spoolRemaining > 0 || start == limit)
+          return null;
+      } // End if
+
+      int end = indexOf(0, start, limit);
+      if (end != start)
+        Printer.printWarning(
+          "content-length header mismatch (more data in frame)");
+      start = Math.min(end + 1, limit);
+      scan = start;
+      if (end == limit)
+        return null;
+
+      Frame frame = new Frame(spoolCommand, spoolHeaders, spool.finish());
+      spool = null;
+      spoolCommand = null;
+      spoolHeaders = null;
+      return frame;
+    } // End try
+
+    catch (IOException ioe)
+    {
+      Printer.printError("Unable to spool frame body to disk.");
+      return fail(ioe);
+    } // End ‘IOException’ catch
+
+  } // End ‘spoolBody()’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  /**
+   * Gives up on the frame being decoded, leaving the cause to be thrown by
+   * the next call to <code>fill</code>.
+   *
+   * @return <code>null</code>, for want of a frame.
+   */
+  private Frame fail(IOException cause)
+  {
+
+    failure = cause;
+    if (spool != null)
+      spool.discard();
+    spool = null;
+
+    return null;
+
+  } // End ‘fail(IOException)’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  private IOException tooLarge()
+  {
+
+    String problem =
+      "Frame exceeds the maximum frame size of " + maxFrameSize + " bytes.";
+    Printer.printError(problem);
+
+    return new IOException(problem);
+
+  } // End ‘tooLarge()’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  private int indexOf(int symbol, int from, int to)
+  {
+
+    int index = from;
+    while (index < to && buffer[index] != symbol)
+      index++;
+
+    return index;
+
+  } // End ‘indexOf(int, int, int)’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  private void makeRoom() throws IOException
+  {
+
+    if (failure != null)
+      throw failure;
+
+    if (limit == buffer.length)
+      compact();
+    else if (start == limit && !shared)
+      start = limit = scan = 0;
+
+    if (limit == buffer.length)
+    {
+      // The frame fills the whole buffer by itself, so grow the buffer.
+      if (limit >= maxFrameSize)
+        throw tooLarge();
+      buffer = Arrays.copyOf(buffer,
+        (int) Math.min(2L * buffer.length, maxFrameSize));
+      shared = false;
+    } // End if
+
+  } // End ‘makeRoom()’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  private void compact()
+  {
+
+    int remaining = limit - start;
+    if (shared)
+    {
+      // Frames still point into the old buffer, so leave it to them.
+      byte[] fresh = new byte[Math.max(capacity, remaining)];
+      System.arraycopy(buffer, start, fresh, 0, remaining);
+      buffer = fresh;
+      shared = false;
+    } // End if
+    else
+      System.arraycopy(buffer, start, buffer, 0, remaining);
+
+    scan -= start;
+    if (headerEnd >= 0)
+      headerEnd -= start;
+    limit = remaining;
+    start = 0;
+
+  } // End ‘compact()’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  private static boolean startsWith(byte[] buffer, byte[] prefix, int from)
+  {
+
+    for (int index = 0; index < prefix.length; index++)
+      if (buffer[from + index] != prefix[index])
+        return false;
+
+    return true;
+
+  } // End ‘startsWith(byte[], byte[], int)’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  private static void malformedSTOMP()
+  {
+    Printer.printError("Malformed STOMP frame received.");
+  } // End ‘malformedSTOMP()’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+  private static byte[][] encodeAll(String[] strings)
+  {
+
+    byte[][] encoded = new byte[strings.length][];
+    for (int index = 0; index < strings.length; index++)
+      encoded[index] = strings[index].getBytes(StandardCharsets.UTF_8);
+
+    return encoded;
+
+  } // End ‘encodeAll(String[])’ Method
+
+// ------------------------------------------ FrameDecoder Class ---------------
+
+} // End ‘FrameDecoder’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,599 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>FrameEncoder</code> writes outgoing STOMP frames straight into
+ * buffers from the {@link BufferPool}. Commands and header names are encoded
+ * once, up front; header values and bodies are encoded as UTF-8 (and
+ * escaped, where the protocol calls for it) character by character, directly
+ * into the buffer. The size of each frame is worked out before it is
+ * written, so nothing is built up in between and a steady stream of frames
+ * allocates nothing.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class FrameEncoder implements Constants
+{
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  private static final byte[] SEND = encode("SEND\n");
+  private static final byte[] SUBSCRIBE = encode("SUBSCRIBE\n");
+  private static final byte[] UNSUBSCRIBE = encode("UNSUBSCRIBE\n");
+  private static final byte[] DISCONNECT = encode("DISCONNECT\n");
+  private static final byte[] ACK_COMMAND = encode("ACK\n");
+  private static final byte[] NACK_COMMAND = encode("NACK\n");
+  private static final byte[] ACCEPT_VERSION = encode("accept-version:1.1\n");
+  private static final byte[] HOST = encode("host:");
+  private static final byte[] LOGIN = encode("login:");
+  private static final byte[] PASSCODE = encode("passcode:");
+  private static final byte[] HEART_BEAT = encode("heart-beat:");
+  private static final byte[] DESTINATION = encode("destination:");
+  private static final byte[] CONTENT_TYPE =
+    encode("content-type:text/plain\n");
+  private static final byte[] CONTENT_LENGTH = encode("content-length:");
+  private static final byte[] RECEIPT = encode("receipt:");
+  private static final byte[] ID = encode("id:");
+  private static final byte[] SUBSCRIPTION = encode("subscription:");
+  private static final byte[] MESSAGE_ID = encode("message-id:");
+  private static final byte[] CONNECTED = encode(
+    "CONNECTED\nversion:1.1\nheart-beat:0,0\nserver:Strampáil\n\n\0");
+  private static final byte[] MESSAGE = encode("MESSAGE\n");
+  private static final byte[] RECEIPT_COMMAND = encode("RECEIPT\n");
+  private static final byte[] ERROR = encode("ERROR\n");
+  private static final byte[] RECEIPT_ID = encode("receipt-id:");
+  private static final byte[] ERROR_MESSAGE = encode("message:");
+  // Headers of a SEND frame that are not passed on in its MESSAGE frames.
+  private static final byte[][] NOT_PASSED_ON =
+    {encode("receipt:"), encode("transaction:")};
+  // Indexed by acknowledgement mode.
+  private static final byte[][] ACK_MODES = {encode("ack:auto\n"),
+    encode("ack:client\n"), encode("ack:client-individual\n")};
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  private FrameEncoder(){}
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes a <code>CONNECT</code> or <code>STOMP</code> frame. As the
+   * protocol requires, its headers are not escaped.
+   *
+   * @param canSend How often the client can send heart-beats (<i>cx</i>).
+   * @param wantsReceived How often the client wants heart-beats from the
+   * server (<i>cy</i>). The header is left out if both are zero.
+   * @return The frame, ready to be written.
+   */
+  static ByteBuffer connect(String command, String host, String login,
+    String passcode, int canSend, int wantsReceived)
+  {
+
+    boolean credentials = login != null && passcode != null;
+    boolean heartBeat = canSend > 0 || wantsReceived > 0;
+    byte[] commandLine = encode(command + "\n");
+
+    int size = commandLine.length + ACCEPT_VERSION.length +
+      headerSize(HOST, host, false) + 2;
+    if (credentials)
+      size += headerSize(LOGIN, login, false) +
+        headerSize(PASSCODE, passcode, false);
+    if (heartBeat)
+      size += HEART_BEAT.length + digits(canSend) + 1 +
+        digits(wantsReceived) + 1;
+
+    ByteBuffer frame = BufferPool.acquire(size);
+    frame.put(commandLine);
+    frame.put(ACCEPT_VERSION);
+    putHeader(frame, HOST, host, false);
+    if (credentials)
+    {
+      putHeader(frame, LOGIN, login, false);
+      putHeader(frame, PASSCODE, passcode, false);
+    } // End if
+    if (heartBeat)
+    {
+      frame.put(HEART_BEAT);
+      putNumber(frame, canSend);
+      frame.put((byte) ',');
+      putNumber(frame, wantsReceived);
+      frame.put((byte) '\n');
+    } // End if
+
+    return finish(frame);
+
+  } // End ‘connect(String, String, String, String, int, int)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes a <code>DISCONNECT</code> frame.
+   *
+   * @return The frame, ready to be written.
+   */
+  static ByteBuffer disconnect(String receiptID)
+  {
+
+    ByteBuffer frame = BufferPool.acquire(
+      DISCONNECT.length + headerSize(RECEIPT, receiptID, true) + 2);
+    frame.put(DISCONNECT);
+    putHeader(frame, RECEIPT, receiptID, true);
+
+    return finish(frame);
+
+  } // End ‘disconnect(String)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes a <code>SUBSCRIBE</code> frame.
+   *
+   * @param ackMode One of {@link Constants#AUTO_ACK},
+   * {@link Constants#CLIENT_ACK} or {@link Constants#CLIENT_INDIVIDUAL_ACK}.
+   * @param receiptID The receipt to ask for (<code>null</code> for none).
+   * @return The frame, ready to be written.
+   */
+  static ByteBuffer subscribe(
+    String id, String destination, int ackMode, String receiptID)
+  {
+
+    ByteBuffer frame = BufferPool.acquire(SUBSCRIBE.length +
+      headerSize(ID, id, true) + headerSize(DESTINATION, destination, true) +
+      ACK_MODES[ackMode].length + headerSize(RECEIPT, receiptID, true) + 2);
+
+    frame.put(SUBSCRIBE);
+    putHeader(frame, ID, id, true);
+    putHeader(frame, DESTINATION, destination, true);
+    frame.put(ACK_MODES[ackMode]);
+    putHeader(frame, RECEIPT, receiptID, true);
+
+    return finish(frame);
+
+  } // End ‘subscribe(String, String, int, String)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes an <code>UNSUBSCRIBE</code> frame.
+   *
+   * @param receiptID The receipt to ask for (<code>null</code> for none).
+   * @return The frame, ready to be written.
+   */
+  static ByteBuffer unsubscribe(String id, String receiptID)
+  {
+
+    ByteBuffer frame = BufferPool.acquire(UNSUBSCRIBE.length +
+      headerSize(ID, id, true) + headerSize(RECEIPT, receiptID, true) + 2);
+
+    frame.put(UNSUBSCRIBE);
+    putHeader(frame, ID, id, true);
+    putHeader(frame, RECEIPT, receiptID, true);
+
+    return finish(frame);
+
+  } // End ‘unsubscribe(String, String)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes an <code>ACK</code> frame.
+   *
+   * @return The frame, ready to be written.
+   */
+  static ByteBuffer ack(String subscription, String messageID)
+  {
+    return acknowledgement(ACK_COMMAND, subscription, messageID);
+  } // End ‘ack(String, String)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes a <code>NACK</code> frame.
+   *
+   * @return The frame, ready to be written.
+   */
+  static ByteBuffer nack(String subscription, String messageID)
+  {
+    return acknowledgement(NACK_COMMAND, subscription, messageID);
+  } // End ‘nack(String, String)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes a <code>SEND</code> frame with a plain text body.
+   *
+   * @param receiptID The receipt to ask for (<code>null</code> for none).
+   * @return The frame, ready to be written.
+   */
+  static ByteBuffer send(String destination, String body, String receiptID)
+  {
+
+    int bodySize = encodedSize(body, false);
+    ByteBuffer frame = BufferPool.acquire(SEND.length +
+      headerSize(DESTINATION, destination, true) + CONTENT_TYPE.length +
+      CONTENT_LENGTH.length + digits(bodySize) + 1 +
+      headerSize(RECEIPT, receiptID, true) + 1 + bodySize + 1);
+
+    frame.put(SEND);
+    putHeader(frame, DESTINATION, destination, true);
+    frame.put(CONTENT_TYPE);
+    frame.put(CONTENT_LENGTH);
+    putNumber(frame, bodySize);
+    frame.put((byte) '\n');
+    putHeader(frame, RECEIPT, receiptID, true);
+    frame.put((byte) '\n');
+    putText(frame, body, false);
+    frame.put((byte) 0);
+    frame.flip();
+
+    return frame;
+
+  } // End ‘send(String, String, String)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+// =============================================== Server Frames ===============
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes the <code>CONNECTED</code> frame a broker answers with. No
+   * heart-beats are offered or asked for.
+   *
+   * @return The frame, ready to be written.
+   */
+  static ByteBuffer connected()
+  {
+
+    ByteBuffer frame = BufferPool.acquire(CONNECTED.length);
+    frame.put(CONNECTED);
+    frame.flip();
+
+    return frame;
+
+  } // End ‘connected()’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes the start of every <code>MESSAGE</code> frame for one
+   * subscription: its command line and <code>subscription</code> header.
+   * Being the same for every message, it need only be encoded once.
+   *
+   * @return The start of the frame, to be followed by a
+   * {@link #messageTail(String, Frame)}.
+   */
+  static byte[] messageHead(String subscription)
+  {
+
+    ByteBuffer head = ByteBuffer.allocate(MESSAGE.length +
+      headerSize(SUBSCRIPTION, subscription, true));
+    head.put(MESSAGE);
+    putHeader(head, SUBSCRIPTION, subscription, true);
+
+    return head.array();
+
+  } // End ‘messageHead(String)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes the rest of a <code>MESSAGE</code> frame carrying on a
+   * <code>SEND</code> frame, which is the same whichever subscription it
+   * goes to: the <code>message-id</code> header, the <code>SEND</code>
+   * frame's headers as they were received (still escaped), all but
+   * <code>receipt</code> and <code>transaction</code>, and its body.
+   *
+   * @param send The <code>SEND</code> frame, as decoded.
+   * @return The rest of the frame, ready to be written after a
+   * {@link #messageHead(String)}.
+   */
+  static ByteBuffer messageTail(String messageID, Frame send)
+  {
+
+    ByteBuffer headers = send.getHeaderBytes();
+    ByteBuffer body = send.getBody();
+
+    ByteBuffer tail = BufferPool.acquire(
+      headerSize(MESSAGE_ID, messageID, true) + putPassedOn(null, headers) +
+      1 + body.remaining() + 1);
+
+    putHeader(tail, MESSAGE_ID, messageID, true);
+    putPassedOn(tail, headers);
+    tail.put((byte) '\n');
+    tail.put(body);
+    tail.put((byte) 0);
+    tail.flip();
+
+    return tail;
+
+  } // End ‘messageTail(String, Frame)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes a <code>RECEIPT</code> frame.
+   *
+   * @return The frame, ready to be written.
+   */
+  static ByteBuffer receipt(String receiptID)
+  {
+
+    ByteBuffer frame = BufferPool.acquire(RECEIPT_COMMAND.length +
+      headerSize(RECEIPT_ID, receiptID, true) + 2);
+    frame.put(RECEIPT_COMMAND);
+    putHeader(frame, RECEIPT_ID, receiptID, true);
+
+    return finish(frame);
+
+  } // End ‘receipt(String)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Encodes an <code>ERROR</code> frame, with no body.
+   *
+   * @param message A short description of what went wrong.
+   * @param receiptID The receipt asked for by the frame in error
+   * (<code>null</code> if none was).
+   * @return The frame, ready to be written.
+   */
+  static ByteBuffer error(String message, String receiptID)
+  {
+
+    ByteBuffer frame = BufferPool.acquire(ERROR.length +
+      headerSize(ERROR_MESSAGE, message, true) +
+      headerSize(RECEIPT_ID, receiptID, true) + 2);
+    frame.put(ERROR);
+    putHeader(frame, ERROR_MESSAGE, message, true);
+    putHeader(frame, RECEIPT_ID, receiptID, true);
+
+    return finish(frame);
+
+  } // End ‘error(String, String)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  private static ByteBuffer acknowledgement(
+    byte[] command, String subscription, String messageID)
+  {
+
+    ByteBuffer frame = BufferPool.acquire(command.length +
+      headerSize(SUBSCRIPTION, subscription, true) +
+      headerSize(MESSAGE_ID, messageID, true) + 2);
+
+    frame.put(command);
+    putHeader(frame, SUBSCRIPTION, subscription, true);
+    putHeader(frame, MESSAGE_ID, messageID, true);
+
+    return finish(frame);
+
+  } // End ‘acknowledgement(byte[], String, String)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /** Ends the headers of a frame with no body, and readies it for writing. */
+  private static ByteBuffer finish(ByteBuffer frame)
+  {
+
+    frame.put((byte) '\n');
+    frame.put((byte) 0);
+    frame.flip();
+
+    return frame;
+
+  } // End ‘finish(ByteBuffer)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  private static int headerSize(byte[] name, String value, boolean escape)
+  {
+    return value == null ? 0 : name.length + encodedSize(value, escape) + 1;
+  } // End ‘headerSize(byte[], String, boolean)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  private static void putHeader(
+    ByteBuffer frame, byte[] name, String value, boolean escape)
+  {
+
+    if (value == null)
+      return;
+
+    frame.put(name);
+    putText(frame, value, escape);
+    frame.put((byte) '\n');
+
+  } // End ‘putHeader(ByteBuffer, byte[], String, boolean)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Copies the lines of a received header block that are to be passed on,
+   * or just counts them.
+   *
+   * @param frame Where to copy them (<code>null</code> only to count them).
+   * @param headers The header block, each line ending in <code>'\n'</code>.
+   * @return The number of bytes copied (or to be).
+   */
+  private static int putPassedOn(ByteBuffer frame, ByteBuffer headers)
+  {
+
+    int size = 0;
+    int end = headers.limit();
+
+    for (int line = headers.position(); line < end;)
+    {
+      int next = line;
+      while (next < end && headers.get(next) != '\n')
+        next++;
+      next = Math.min(next + 1, end);
+
+      if (!startsWithAny(headers, line, NOT_PASSED_ON))
+      {
+        size += next - line;
+        if (frame != null)
+          frame.put(headers.duplicate().limit(next).position(line));
+      } // End if
+
+      line = next;
+    } // End for
+
+    return size;
+
+  } // End ‘putPassedOn(ByteBuffer, ByteBuffer)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  private static boolean startsWithAny(
+    ByteBuffer headers, int from, byte[][] prefixes)
+  {
+
+    for (byte[] prefix : prefixes)
+    {
+      int index = 0;
+      while (index < prefix.length && from + index < headers.limit() &&
+        headers.get(from + index) == prefix[index])
+        index++;
+      if (index == prefix.length)
+        return true;
+    } // End for
+
+    return false;
+
+  } // End ‘startsWithAny(ByteBuffer, int, byte[][])’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Works out how many bytes {@link #putText(ByteBuffer, String, boolean)}
+   * will write for a string.
+   */
+  private static int encodedSize(String text, boolean escape)
+  {
+
+    int size = 0;
+    int length = text.length();
+
+    for (int index = 0; index < length; index++)
+    {
+      char symbol = text.charAt(index);
+      if (escape && (symbol == '\\' || symbol == '\n' || symbol == ':'))
+        size += 2;
+      else if (symbol < 0x80)
+        size += 1;
+      else if (symbol < 0x800)
+        size += 2;
+      else if (Character.isHighSurrogate(symbol) && index + 1 < length &&
+        Character.isLowSurrogate(text.charAt(index + 1)))
+      {
+        size += 4;
+        index++;
+      } // End else if
+      else if (Character.isSurrogate(symbol))
+        size += 1; // Unpaired: written as ‘?’.
+      else
+        size += 3;
+    } // End for
+
+    return size;
+
+  } // End ‘encodedSize(String, boolean)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  /**
+   * Writes a string into a buffer as UTF-8, escaping it as a header value if
+   * asked to.
+   */
+  private static void putText(ByteBuffer frame, String text, boolean escape)
+  {
+
+    int length = text.length();
+
+    for (int index = 0; index < length; index++)
+    {
+      char symbol = text.charAt(index);
+      if (escape && symbol == '\\')
+        frame.put((byte) '\\').put((byte) '\\');
+      else if (escape && symbol == '\n')
+        frame.put((byte) '\\').put((byte) 'n');
+      else if (escape && symbol == ':')
+        frame.put((byte) '\\').put((byte) 'c');
+      else if (symbol < 0x80)
+        frame.put((byte) symbol);
+      else if (symbol < 0x800)
+        frame.put((byte) (0xC0 | symbol >> 6))
+          .put((byte) (0x80 | symbol & 0x3F));
+      else if (Character.isHighSurrogate(symbol) && index + 1 < length &&
+        Character.isLowSurrogate(text.charAt(index + 1)))
+      {
+        int point = Character.toCodePoint(symbol, text.charAt(++index));
+        frame.put((byte) (0xF0 | point >> 18))
+          .put((byte) (0x80 | point >> 12 & 0x3F))
+          .put((byte) (0x80 | point >> 6 & 0x3F))
+          .put((byte) (0x80 | point & 0x3F));
+      } // End else if
+      else if (Character.isSurrogate(symbol))
+        frame.put((byte) '?');
+      else
+        frame.put((byte) (0xE0 | symbol >> 12))
+          .put((byte) (0x80 | symbol >> 6 & 0x3F))
+          .put((byte) (0x80 | symbol & 0x3F));
+    } // End for
+
+  } // End ‘putText(ByteBuffer, String, boolean)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  private static int digits(int number)
+  {
+
+    int count = 1;
+    while (number >= 10)
+    {
+      number /= 10;
+      count++;
+    } // End while
+
+    return count;
+
+  } // End ‘digits(int)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  private static void putNumber(ByteBuffer frame, int number)
+  {
+
+    int divisor = 1;
+    for (int count = digits(number); count > 1; count--)
+      divisor *= 10;
+
+    for (; divisor > 0; divisor /= 10)
+      frame.put((byte) ('0' + number / divisor % 10));
+
+  } // End ‘putNumber(ByteBuffer, int)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+  private static byte[] encode(String text)
+  {
+    return text.getBytes(StandardCharsets.UTF_8);
+  } // End ‘encode(String)’ Method
+
+// ------------------------------------------ FrameEncoder Class ---------------
+
+} // End ‘FrameEncoder’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
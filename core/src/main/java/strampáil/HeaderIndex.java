@@ -0,0 +1,382 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>HeaderIndex</code> records where each header of a frame lies in
+ * the buffer the frame was received into, as three offsets per header: the
+ * start of its name, its colon and the end of its line. The names of the
+ * headers the client itself looks at are recognised byte for byte as the
+ * index is built, and share one {@link String} each; nothing else is
+ * decoded up front. Values
+ * are decoded (and unescaped) only when asked for, and then kept.
+ * <p>
+ * An index may be read by several threads at once. The decoded strings are
+ * kept without locking, so two threads may each decode the same one, but
+ * either copy will do.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class HeaderIndex
+{
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  /** Header names recognised without building a new String. */
+  private static final String[] KNOWN_NAMES = {"destination", "message-id",
+    "subscription", "content-length", "content-type", "receipt-id",
+    "version", "heart-beat", "message"};
+  private static final byte[][] KNOWN_BYTES = encodeAll(KNOWN_NAMES);
+  private static final byte[] CONTENT_LENGTH =
+    "content-length".getBytes(StandardCharsets.UTF_8);
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  private final byte[] buffer;
+  private final int[] offsets; // Name, colon, line end and known name.
+  private final String[] values;
+  private final int count;
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  /**
+   * Indexes a header block: one <code>key:value</code> line per header, each
+   * ending in <code>'\n'</code>, still escaped.
+   */
+  HeaderIndex(byte[] buffer, int from, int to)
+  {
+
+    this.buffer = buffer;
+
+    int lines = 0;
+    for (int index = from; index < to; index++)
+      if (buffer[index] == '\n')
+        lines++;
+    if (to > from && buffer[to - 1] != '\n')
+      lines++; // A last line left unterminated.
+
+    int[] found = new int[lines * 4];
+    int headers = 0;
+
+    for (int lineStart = from, lineEnd; lineStart < to;
+      lineStart = lineEnd + 1)
+    {
+      lineEnd = indexOf(buffer, '\n', lineStart, to);
+      int colon = indexOf(buffer, ':', lineStart, lineEnd);
+
+      if (colon == lineEnd)
+        Printer.printError("Malformed STOMP header received.");
+      else
+      {
+        found[headers * 4] = lineStart;
+        found[headers * 4 + 1] = colon;
+        found[headers * 4 + 2] = lineEnd;
+        found[headers * 4 + 3] = knownName(buffer, lineStart, colon);
+        headers++;
+      } // End else
+    } // End for
+
+    offsets = found;
+    count = headers;
+    values = new String[headers];
+
+  } // End ‘HeaderIndex(byte[], int, int)’ Constructor
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  /**
+   * @return The number of headers (repeats included).
+   */
+  int size()
+  {
+    return count;
+  } // End ‘size()’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  /**
+   * Retrieves the value of a header. Where a header is repeated, the first
+   * occurrence counts.
+   *
+   * @return The value (<code>null</code> if the header is absent).
+   */
+  String get(String name)
+  {
+
+    int header = indexOf(name);
+    return header < 0 ? null : value(header);
+
+  } // End ‘get(String)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  /**
+   * @return The (unescaped) name of the header at the given position.
+   */
+  String name(int header)
+  {
+
+    int known = offsets[header * 4 + 3];
+    return known >= 0 ? KNOWN_NAMES[known] :
+      unescape(buffer, offsets[header * 4], offsets[header * 4 + 1]);
+
+  } // End ‘name(int)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  /**
+   * @return The (unescaped) value of the header at the given position.
+   */
+  String value(int header)
+  {
+
+    String value = values[header];
+    if (value == null)
+    {
+      value = unescape(
+        buffer, offsets[header * 4 + 1] + 1, offsets[header * 4 + 2]);
+      values[header] = value;
+    } // End if
+
+    return value;
+
+  } // End ‘value(int)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  /**
+   * Decodes every header.
+   *
+   * @return A new map of header names to values.
+   */
+  HashMap<String, String> toMap()
+  {
+
+    HashMap<String, String> decoded = new HashMap<String, String>();
+    for (int header = 0; header < count; header++)
+      decoded.putIfAbsent(name(header), value(header));
+
+    return decoded;
+
+  } // End ‘toMap()’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  /**
+   * Finds the <code>content-length</code> header in a header block without
+   * decoding anything.
+   *
+   * @return The length (<code>-1</code> if absent or invalid).
+   */
+  static int contentLength(byte[] buffer, int from, int to)
+  {
+
+    for (int lineStart = from, lineEnd; lineStart < to;
+      lineStart = lineEnd + 1)
+    {
+      lineEnd = indexOf(buffer, '\n', lineStart, to);
+      int colon = lineStart + CONTENT_LENGTH.length;
+      if (colon < lineEnd && buffer[colon] == ':' &&
+        matches(buffer, CONTENT_LENGTH, lineStart, colon))
+        return parseLength(buffer, colon + 1, lineEnd);
+    } // End for
+
+    return -1;
+
+  } // End ‘contentLength(byte[], int, int)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  private int indexOf(String name)
+  {
+
+    for (int header = 0; header < count; header++)
+      if (offsets[header * 4 + 3] >= 0 &&
+        KNOWN_NAMES[offsets[header * 4 + 3]] == name)
+        return header; // The very same string, so no need to compare.
+
+    if (!isPlain(name))
+    {
+      for (int header = 0; header < count; header++)
+        if (name(header).equals(name))
+          return header;
+    } // End if
+    else
+    {
+      for (int header = 0; header < count; header++)
+        if (matches(buffer, name, offsets[header * 4],
+          offsets[header * 4 + 1]))
+          return header;
+    } // End else
+
+    return -1;
+
+  } // End ‘indexOf(String)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  /**
+   * @return The position of a header name among the known names
+   * (<code>-1</code> if not one of them).
+   */
+  private static int knownName(byte[] buffer, int from, int to)
+  {
+
+    for (int index = 0; index < KNOWN_BYTES.length; index++)
+      if (matches(buffer, KNOWN_BYTES[index], from, to))
+        return index;
+
+    return -1;
+
+  } // End ‘knownName(byte[], int, int)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  private static String unescape(byte[] buffer, int from, int to)
+  {
+
+    if (indexOf(buffer, '\\', from, to) == to)
+      return new String(buffer, from, to - from, StandardCharsets.UTF_8);
+
+    byte[] unescaped = new byte[to - from];
+    int index = 0;
+    for (int position = from; position < to; position++)
+    {
+      byte symbol = buffer[position];
+      if (symbol == '\\' && position + 1 < to)
+      {
+        symbol = buffer[++position];
+        if (symbol == 'c')
+          unescaped[index++] = ':';
+        else if (symbol == 'n')
+          unescaped[index++] = '\n';
+        else if (symbol == '\\')
+          unescaped[index++] = '\\';
+        else
+          Printer.printError("Malformed STOMP header received.");
+      } // End if
+      else
+        unescaped[index++] = symbol;
+    } // End for
+
+    return new String(unescaped, 0, index, StandardCharsets.UTF_8);
+
+  } // End ‘unescape(byte[], int, int)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  private static int parseLength(byte[] buffer, int from, int to)
+  {
+
+    int length = 0;
+    for (int index = from; index < to; index++)
+    {
+      int digit = buffer[index] - '0';
+      if (digit < 0 || digit > 9 || length > (Integer.MAX_VALUE - digit) / 10)
+      {
+        Printer.printWarning("Ignoring invalid content-length ‘" +
+          new String(buffer, from, to - from, StandardCharsets.UTF_8) + "’.");
+        return -1;
+      } // End if
+
+      length = length * 10 + digit;
+    } // End for
+
+    return from == to ? -1 : length;
+
+  } // End ‘parseLength(byte[], int, int)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  /**
+   * Checks whether a name can be compared with raw header names byte for
+   * byte: that is, it is ASCII and needs no escaping.
+   */
+  private static boolean isPlain(String name)
+  {
+
+    for (int index = 0; index < name.length(); index++)
+    {
+      char symbol = name.charAt(index);
+      if (symbol >= 0x80 || symbol == ':' || symbol == '\n' ||
+        symbol == '\\')
+        return false;
+    } // End for
+
+    return true;
+
+  } // End ‘isPlain(String)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  private static boolean matches(byte[] buffer, String name, int from, int to)
+  {
+
+    if (to - from != name.length())
+      return false;
+
+    for (int index = 0; index < to - from; index++)
+      if (buffer[from + index] != name.charAt(index))
+        return false;
+
+    return true;
+
+  } // End ‘matches(byte[], String, int, int)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  private static boolean matches(byte[] buffer, byte[] name, int from, int to)
+  {
+
+    if (to - from != name.length)
+      return false;
+
+    for (int index = 0; index < name.length; index++)
+      if (buffer[from + index] != name[index])
+        return false;
+
+    return true;
+
+  } // End ‘matches(byte[], byte[], int, int)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  private static int indexOf(byte[] buffer, int symbol, int from, int to)
+  {
+
+    int index = from;
+    while (index < to && buffer[index] != symbol)
+      index++;
+
+    return index;
+
+  } // End ‘indexOf(byte[], int, int, int)’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+  private static byte[][] encodeAll(String[] strings)
+  {
+
+    byte[][] encoded = new byte[strings.length][];
+    for (int index = 0; index < strings.length; index++)
+      encoded[index] = strings[index].getBytes(StandardCharsets.UTF_8);
+
+    return encoded;
+
+  } // End ‘encodeAll(String[])’ Method
+
+// ------------------------------------------- HeaderIndex Class ---------------
+
+} // End ‘HeaderIndex’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
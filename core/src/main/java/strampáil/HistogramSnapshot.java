@@ -0,0 +1,177 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>HistogramSnapshot</code> is a copy of a histogram of times, taken
+ * at one moment, from which percentiles can be read. Each time was counted
+ * to within one part in sixteen of itself, and is reported as the longest
+ * time it could have been.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+public final class HistogramSnapshot
+{
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+  private final long[] counts;
+  private final long count, sum;
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+  HistogramSnapshot(long[] counts, long sum)
+  {
+
+    this.counts = counts;
+    this.sum = sum;
+
+    long total = 0;
+    for (long bucketCount : counts)
+      total += bucketCount;
+    count = total;
+
+  } // End ‘HistogramSnapshot(long[], long)’ Constructor
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+  /**
+   * @return How many times were counted.
+   */
+  public long getCount()
+  {
+    return count;
+  } // End ‘getCount()’ Method
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+  /**
+   * @return The mean time, in nanoseconds (exact, rather than to within a
+   * bucket; zero if nothing was counted).
+   */
+  public double getMean()
+  {
+    return count == 0 ? 0 : (double) sum / count;
+  } // End ‘getMean()’ Method
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+  /**
+   * @return The shortest time counted, in nanoseconds (zero if nothing was
+   * counted).
+   */
+  public long getMin()
+  {
+
+    for (int bucket = 0; bucket < counts.length; bucket++)
+      if (counts[bucket] > 0)
+        return LatencyHistogram.lowest(bucket);
+
+    return 0;
+
+  } // End ‘getMin()’ Method
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+  /**
+   * @return The longest time counted, in nanoseconds (zero if nothing was
+   * counted).
+   */
+  public long getMax()
+  {
+
+    for (int bucket = counts.length - 1; bucket >= 0; bucket--)
+      if (counts[bucket] > 0)
+        return valueOf(bucket);
+
+    return 0;
+
+  } // End ‘getMax()’ Method
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+  /**
+   * @param percentile The percentage of times (from 0 to 100) that are to
+   * be no longer than the time returned.
+   * @return The time, in nanoseconds (zero if nothing was counted).
+   */
+  public long getPercentile(double percentile)
+  {
+
+    if (count == 0)
+      return 0;
+
+    long wanted = Math.max(1,
+      (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count));
+
+    long seen = 0;
+    for (int bucket = 0; bucket < counts.length; bucket++)
+    {
+      seen += counts[bucket];
+      if (seen >= wanted)
+        return valueOf(bucket);
+    } // End for
+
+    return getMax();
+
+  } // End ‘getPercentile(double)’ Method
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+  /**
+   * @return The count, mean, least and greatest times, and the 50th, 90th,
+   * 99th and 99.9th percentiles, by name (in nanoseconds).
+   */
+  public Map<String, Long> toMap()
+  {
+
+    LinkedHashMap<String, Long> summary = new LinkedHashMap<String, Long>();
+    summary.put("count", count);
+    summary.put("mean", Math.round(getMean()));
+    summary.put("min", getMin());
+    summary.put("p50", getPercentile(50));
+    summary.put("p90", getPercentile(90));
+    summary.put("p99", getPercentile(99));
+    summary.put("p99.9", getPercentile(99.9));
+    summary.put("max", getMax());
+
+    return Collections.unmodifiableMap(summary);
+
+  } // End ‘toMap()’ Method
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+  public String toString()
+  {
+    return toMap().toString();
+  } // End ‘toString()’ Method
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+  private static long valueOf(int bucket)
+  {
+
+    // The last bucket has no upper bound, so its lower one will have to do.
+    if (bucket == LatencyHistogram.BUCKETS - 1)
+      return LatencyHistogram.lowest(bucket);
+
+    return LatencyHistogram.highest(bucket);
+
+  } // End ‘valueOf(int)’ Method
+
+// ------------------------------------- HistogramSnapshot Class ---------------
+
+} // End ‘HistogramSnapshot’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,141 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>LatencyHistogram</code> counts times (in nanoseconds) in buckets
+ * laid out as an HDR histogram's are: every power of two is split into the
+ * same number of buckets, so every time is kept to within a fixed fraction
+ * of itself (here, one part in sixteen at worst) however large it is. Times
+ * under 32ns are kept exactly; times over about eighteen minutes all share
+ * the last bucket.
+ * <p>
+ * Recording a time takes no lock and allocates nothing, and any number of
+ * threads may record at once.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @see HistogramSnapshot
+ */
+final class LatencyHistogram
+{
+
+// -------------------------------------- LatencyHistogram Class ---------------
+
+  private static final int EXACT = 32; // Kept exactly, one bucket each.
+  private static final int SPLIT = 16; // Buckets to each power of two.
+  private static final int SPLIT_BITS = 4;
+  private static final int MAX_MAGNITUDE = 40;
+
+  /** How many buckets there are. */
+  static final int BUCKETS = EXACT + (MAX_MAGNITUDE - SPLIT_BITS) * SPLIT;
+
+// -------------------------------------- LatencyHistogram Class ---------------
+
+  private final AtomicLongArray counts;
+  private final LongAdder sum;
+
+// -------------------------------------- LatencyHistogram Class ---------------
+
+  LatencyHistogram()
+  {
+    counts = new AtomicLongArray(BUCKETS);
+    sum = new LongAdder();
+  } // End ‘LatencyHistogram()’ Constructor
+
+// -------------------------------------- LatencyHistogram Class ---------------
+
+  /**
+   * @param nanos The time to count (taken as zero if negative).
+   */
+  void record(long nanos)
+  {
+
+    long time = Math.max(nanos, 0);
+    counts.incrementAndGet(bucket(time));
+    sum.add(time);
+
+  } // End ‘record(long)’ Method
+
+// -------------------------------------- LatencyHistogram Class ---------------
+
+  /**
+   * @return The times counted so far. Times recorded while the snapshot is
+   * being taken may or may not be in it.
+   */
+  HistogramSnapshot snapshot()
+  {
+
+    long[] taken = new long[BUCKETS];
+    for (int bucket = 0; bucket < BUCKETS; bucket++)
+      taken[bucket] = counts.get(bucket);
+
+    return new HistogramSnapshot(taken, sum.sum());
+
+  } // End ‘snapshot()’ Method
+
+// -------------------------------------- LatencyHistogram Class ---------------
+
+  /**
+   * @return The bucket the given time is counted in.
+   */
+  static int bucket(long nanos)
+  {
+
+    if (nanos < EXACT)
+      return (int) nanos;
+
+    int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+    if (magnitude > MAX_MAGNITUDE)
+      return BUCKETS - 1;
+
+    int shift = magnitude - SPLIT_BITS;
+    return EXACT + (magnitude - SPLIT_BITS - 1) * SPLIT +
+      (int) (nanos >>> shift) - SPLIT;
+
+  } // End ‘bucket(long)’ Method
+
+// -------------------------------------- LatencyHistogram Class ---------------
+
+  /**
+   * @return The shortest time counted in the given bucket.
+   */
+  static long lowest(int bucket)
+  {
+
+    if (bucket < EXACT)
+      return bucket;
+
+    int offset = bucket - EXACT;
+    int shift = offset / SPLIT + 1;
+    return (long) (offset % SPLIT + SPLIT) << shift;
+
+  } // End ‘lowest(int)’ Method
+
+// -------------------------------------- LatencyHistogram Class ---------------
+
+  /**
+   * @return The longest time counted in the given bucket.
+   */
+  static long highest(int bucket)
+  {
+
+    if (bucket < EXACT)
+      return bucket;
+    else if (bucket == BUCKETS - 1)
+      return Long.MAX_VALUE;
+
+    return lowest(bucket + 1) - 1;
+
+  } // End ‘highest(int)’ Method
+
+// -------------------------------------- LatencyHistogram Class ---------------
+
+} // End ‘LatencyHistogram’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,153 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>Log</code> prints on behalf of one client, at that client's own
+ * debug level, so that one connection can be watched frame by frame while
+ * every other stays quiet (and pays nothing for it). Messages that belong to
+ * no one client, from the parts shared between them, go through
+ * {@link Printer} at its global level instead.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class Log implements Constants
+{
+
+// --------------------------------------------------- Log Class ---------------
+
+  private volatile int debugLevel;
+
+// --------------------------------------------------- Log Class ---------------
+
+  /**
+   * @param debugLevel The level of debug information to be displayed.
+   */
+  Log(int debugLevel)
+  {
+    this.debugLevel = debugLevel;
+  } // End ‘Log(int)’ Constructor
+
+// --------------------------------------------------- Log Class ---------------
+
+  /**
+   * @param debugLevel The level of debug information to be displayed.
+   */
+  void setDebugLevel(int debugLevel)
+  {
+    this.debugLevel = debugLevel;
+  } // End ‘setDebugLevel(int)’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+  /**
+   * @param level One of {@link Constants#DEBUG}, {@link Constants#INFO},
+   * {@link Constants#WARNING} or {@link Constants#ERROR}.
+   * @return Whether messages of the given level are printed.
+   */
+  boolean isEnabled(int level)
+  {
+    return debugLevel <= level;
+  } // End ‘isEnabled(int)’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+  void printDebug(String message)
+  {
+    if (debugLevel <= DEBUG)
+      Printer.print(2, message);
+  } // End ‘printDebug(String)’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+  void printInfo(String message)
+  {
+    if (debugLevel <= INFO)
+      Printer.print(4, message);
+  } // End ‘printInfo(String)’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+  void printWarning(String message)
+  {
+    if (debugLevel <= WARNING)
+      Printer.print(3, message);
+  } // End ‘printWarning(String)’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+  void printError(String message)
+  {
+    if (debugLevel <= ERROR)
+      Printer.print(1, message);
+  } // End ‘printError(String)’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+  void printTCPError(String command)
+  {
+    printError("Cannot send " + command +
+      " frame due to absence of a TCP connection." +
+      " Ensure that you can connect to the server with TCP" +
+      " first before trying to send STOMP messages.");
+  } // End ‘printTCPError(String)’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+  void printDisconnectError()
+  {
+    printError("DISCONNECT has been issued," +
+      " no more STOMP frames are allowed to be sent!");
+  } // End ‘printDisconnectError()’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+  void printIOError(String command)
+  {
+    printError("Cannot send " + command + " frame due to I/O issue.");
+  } // End ‘printIOError(String)’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+  void printSTOMPError()
+  {
+    printError("STOMP connection closed! A STOMP connection needs" +
+      " to be established first.");
+  } // End ‘printSTOMPError()’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+  void printSendFrame(ByteBuffer frame)
+  {
+
+    if (debugLevel > DEBUG)
+      return;
+
+    // Decode a view, leaving the frame itself untouched (and dropping NUL).
+    ByteBuffer view = frame.duplicate();
+    view.limit(view.limit() - 1);
+    printDebug("Sending frame \033[1;33m↓\n→→→\033[0m\n" +
+      StandardCharsets.UTF_8.decode(view) + "\n\033[1;33m→→→\033[0m");
+
+  } // End ‘printSendFrame(ByteBuffer)’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+  void printReceiveFrame(Frame frame)
+  {
+    if (debugLevel <= DEBUG)
+      printDebug("Frame received \033[1;35m↓\n←←←\033[0m\n" +
+        frame + "\n\033[1;35m←←←\033[0m");
+  } // End ‘printReceiveFrame(Frame)’ Method
+
+// --------------------------------------------------- Log Class ---------------
+
+} // End ‘Log’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,217 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * The <code>PrintSink</code> is where the {@link Printer} sends its lines,
+ * so that whichever thread prints (often one reading from or writing to the
+ * server) never waits on the console. Lines go into a ring of slots, any
+ * number of threads claiming theirs with a compare-and-set, and a thread of
+ * the sink's own writes them out a batch at a time. Should the ring fill,
+ * lines are dropped rather than waited on, and how many is reported once
+ * there is room.
+ * <p>
+ * Nothing is started until the first line is printed. Lines still in the
+ * ring when the JVM shuts down are written out before it goes.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class PrintSink implements Runnable
+{
+
+// --------------------------------------------- PrintSink Class ---------------
+
+  private static final int CAPACITY = 4096;
+  private static final int BATCH_SIZE = 65536;
+  private static final long EXIT_WAIT = 1000;
+
+  private static final PrintSink sink = new PrintSink(System.err);
+
+// --------------------------------------------- PrintSink Class ---------------
+
+  private final PrintStream out;
+  private final int mask;
+  private final AtomicReferenceArray<String> slots;
+  private final AtomicLong head, tail, dropped;
+  private final Thread writer;
+  private volatile long written;
+  private volatile boolean waiting;
+
+// --------------------------------------------- PrintSink Class ---------------
+
+  private PrintSink(PrintStream out)
+  {
+
+    this.out = out;
+    mask = CAPACITY - 1;
+    slots = new AtomicReferenceArray<String>(CAPACITY);
+    head = new AtomicLong(0);
+    tail = new AtomicLong(0);
+    dropped = new AtomicLong(0);
+    written = 0;
+    waiting = false;
+
+    writer = new Thread(this, "strampáil-printer");
+    writer.setDaemon(true);
+    writer.start();
+
+    Runtime.getRuntime().addShutdownHook(new Thread(new Runnable()
+    {
+      public void run()
+      {
+        awaitWritten(EXIT_WAIT);
+      } // End ‘run()’ Method
+    }, "strampáil-printer-exit"));
+
+  } // End ‘PrintSink(PrintStream)’ Constructor
+
+// --------------------------------------------- PrintSink Class ---------------
+
+  /**
+   * Queues a line to be printed, without waiting.
+   *
+   * @param line The line, without its line break.
+   */
+  static void print(String line)
+  {
+    sink.offer(line);
+  } // End ‘print(String)’ Method
+
+// --------------------------------------------- PrintSink Class ---------------
+
+  public void run()
+  {
+
+    StringBuilder batch = new StringBuilder();
+    long reported = 0;
+
+    while (true)
+    {
+      long position = head.get();
+      int index = (int) (position & mask);
+      String line = slots.get(index);
+
+      if (line != null && batch.length() < BATCH_SIZE)
+      {
+        slots.set(index, null);
+        head.set(position + 1);
+        batch.append(line).append('\n');
+        continue;
+      } // End if
+
+      long lost = dropped.get();
+      if (lost > reported)
+      {
+        batch.append("\033[33m→\033[0m ").append(lost - reported)
+          .append(" lines dropped, printing having fallen behind.\n");
+        reported = lost;
+      } // End if
+
+      if (batch.length() > 0)
+      {
+        out.print(batch);
+        out.flush();
+        batch.setLength(0);
+        written = position;
+      } // End if
+
+      if (line == null)
+        park(index);
+    } // End while
+
+  } // End ‘run()’ Method
+
+// --------------------------------------------- PrintSink Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// --------------------------------------------- PrintSink Class ---------------
+
+  private void offer(String line)
+  {
+
+    long position = claim();
+    if (position < 0)
+    {
+      dropped.incrementAndGet();
+      return;
+    } // End if
+
+    // A full write, so that the writer cannot miss it and sleep on.
+    slots.set((int) (position & mask), line);
+
+    if (waiting)
+      LockSupport.unpark(writer);
+
+  } // End ‘offer(String)’ Method
+
+// --------------------------------------------- PrintSink Class ---------------
+
+  /**
+   * Claims the next slot against any other printing threads.
+   *
+   * @return The position claimed (-1 if the ring is full).
+   */
+  private long claim()
+  {
+
+    while (true)
+    {
+      long position = tail.get();
+      if (position - head.get() >= CAPACITY)
+        return -1;
+      if (tail.compareAndSet(position, position + 1))
+        return position;
+    } // End while
+
+  } // End ‘claim()’ Method
+
+// --------------------------------------------- PrintSink Class ---------------
+
+  /**
+   * Sleeps until a line is put in the given slot, unless one got there
+   * first.
+   */
+  private void park(int index)
+  {
+
+    waiting = true;
+    if (slots.get(index) == null)
+      LockSupport.park(this);
+    waiting = false;
+
+  } // End ‘park(int)’ Method
+
+// --------------------------------------------- PrintSink Class ---------------
+
+  /**
+   * Waits for every line queued so far to be written, for up to the given
+   * time.
+   */
+  private void awaitWritten(long timeout)
+  {
+
+    long queued = tail.get();
+    long deadline = System.currentTimeMillis() + timeout;
+
+    while (written < queued && System.currentTimeMillis() < deadline)
+    {
+      LockSupport.unpark(writer);
+      LockSupport.parkNanos(1000000);
+    } // End while
+
+  } // End ‘awaitWritten(long)’ Method
+
+// --------------------------------------------- PrintSink Class ---------------
+
+} // End ‘PrintSink’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
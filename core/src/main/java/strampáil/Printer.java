@@ -5,10 +5,21 @@ package strampáil;
 // +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
 
 /**
- * Provides static methods for printing info to the CLI.
+ * Provides static methods for printing info to the CLI. Lines are handed to
+ * a {@link PrintSink} to be written, so printing never holds up the caller.
+ * <p>
+ * The debug level here is global, and covers what belongs to no one client
+ * (event loops, and decoding shared by every connection). Each client
+ * prints through a {@link Log} of its own, at the level it was configured
+ * with.
+ * <p>
+ * Each method checks the debug level before doing anything else, but its
+ * message has already been built by then. Where building one costs
+ * anything (on a path taken for every frame, say), check
+ * {@link #isEnabled(int)} first.
  *
  * @author Mark David Pokorny
- * @version Dé Céadaoin, 27ú Aibreán 2016
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
  * @since Dé hAoine, 22ú Aibreán 2016
  */
 public abstract class Printer implements Constants
@@ -16,13 +27,26 @@ public abstract class Printer implements Constants
 
 // ----------------------------------------------- Printer Class ---------------
 
-  /** The level of debug information to be displayed. */
-  public static int debugLevel = 0;
+  /** The level of debug information to be displayed by what belongs to no
+   * one client. */
+  public static int debugLevel = WARNING;
 
 // ----------------------------------------------- Printer Class ---------------
 
   private Printer(){}
 
+// ----------------------------------------------- Printer Class ---------------
+
+  /**
+   * @param level One of {@link Constants#DEBUG}, {@link Constants#INFO},
+   * {@link Constants#WARNING} or {@link Constants#ERROR}.
+   * @return Whether messages of the given level are printed.
+   */
+  public static boolean isEnabled(int level)
+  {
+    return debugLevel <= level;
+  } // End ‘isEnabled(int)’ Method
+
 // ----------------------------------------------- Printer Class ---------------
 
   /**
@@ -33,7 +57,7 @@ public abstract class Printer implements Constants
   public static void printDebug(String message)
   {
     if (debugLevel <= DEBUG)
-      printGeneric(2, message);
+      print(2, message);
   } // End ‘printInfo(String)’ Method
 
 // ----------------------------------------------- Printer Class ---------------
@@ -46,7 +70,7 @@ public abstract class Printer implements Constants
   public static void printInfo(String message)
   {
     if (debugLevel <= INFO)
-      printGeneric(4, message);
+      print(4, message);
   } // End ‘printInfo(String)’ Method
 
 // ----------------------------------------------- Printer Class ---------------
@@ -59,7 +83,7 @@ public abstract class Printer implements Constants
   public static void printWarning(String message)
   {
     if (debugLevel <= WARNING)
-      printGeneric(3, message);
+      print(3, message);
   } // End ‘printWarning(String)’ Method
 
 // ----------------------------------------------- Printer Class ---------------
@@ -72,56 +96,21 @@ public abstract class Printer implements Constants
   public static void printError(String message)
   {
     if (debugLevel <= ERROR)
-      printGeneric(1, message);
+      print(1, message);
   } // End ‘printError(String)’ Method
 
 // ----------------------------------------------- Printer Class ---------------
 
-  private static void printGeneric(int colour, String message)
-  {
-    System.err.println("\033[3" + colour + "m→\033[0m " + message);
-  } // End ‘printGeneric(int, String)’ Method
-
-// ----------------------------------------------- Printer Class ---------------
-
-  static void printTCPError(String command)
-  {
-    Printer.printError("Cannot send " + command +
-      " frame due to absence of a TCP connection." +
-      " Ensure that you can connect to the server with TCP" +
-      " first before trying to send STOMP messages.");
-  } // End ‘printTCPError(String)’ Method
-
-// ----------------------------------------------- Printer Class ---------------
-
-  static void printDisconnectError()
-  {
-    Printer.printError("DISCONNECT has been issued," +
-      " no more STOMP frames are allowed to be sent!");
-  } // End ‘printDisconnectError()’ Method
-
-// ----------------------------------------------- Printer Class ---------------
-
-  static void printIOError(String command)
-  {
-    Printer.printError("Cannot send " + command + " frame due to I/O issue.");
-  } // End ‘printIOError(String)’ Method
-
-// ----------------------------------------------- Printer Class ---------------
-
-  static void printSTOMPError()
-  {
-    Printer.printError("STOMP connection closed! A STOMP connection needs" +
-      " to be established first.");
-  } // End ‘printSTOMPError(String)’ Method
-
-// ----------------------------------------------- Printer Class ---------------
-
-  static void printSendFrame(String frame)
+  /**
+   * Prints a message in the given colour, whatever the debug level.
+   *
+   * @param colour The ANSI colour of the arrow before the message.
+   * @param message The message to be printed.
+   */
+  static void print(int colour, String message)
   {
-    Printer.printDebug("Sending frame \033[1;33m↓\n→→→\033[0m\n" +
-      frame + "\n\033[1;33m→→→\033[0m");
-  } // End ‘printSendFrame(String)’ Method
+    PrintSink.print("\033[3" + colour + "m→\033[0m " + message);
+  } // End ‘print(int, String)’ Method
 
 // ----------------------------------------------- Printer Class ---------------
 
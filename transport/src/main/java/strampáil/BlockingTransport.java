@@ -0,0 +1,143 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.locks.ReentrantLock;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>BlockingTransport</code> talks to the server over a
+ * {@link SocketChannel} in blocking mode, with a dedicated
+ * {@link ClientReceiver} thread per connection listening for incoming frames.
+ * Batches are written with a single gathering write, straight from the
+ * (direct) buffers they were encoded into.
+ * <p>
+ * The receiving thread may be a virtual thread, in which case it costs next
+ * to nothing while blocked on the socket; so that no write pins its carrier
+ * thread, writes are serialised with a lock rather than a monitor.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+class BlockingTransport implements Transport
+{
+
+// ------------------------------------- BlockingTransport Class ---------------
+
+  private SocketChannel channel;
+  private ClientReceiver receiver;
+  private Thread receiverThread;
+  private ReentrantLock writeLock;
+  private int holds; // Guarded by ‘this’.
+
+// ------------------------------------- BlockingTransport Class ---------------
+
+  BlockingTransport(String address, int port, TransportClient client,
+    int decoderMode, int threadMode) throws IOException
+  {
+
+    writeLock = new ReentrantLock();
+    holds = 0;
+    channel = SocketChannel.open(
+      new InetSocketAddress(InetAddress.getByName(address), port));
+    channel.socket().setTcpNoDelay(true); // Batching is done elsewhere.
+
+    receiver = new ClientReceiver(
+      channel.socket().getInputStream(), client, decoderMode);
+    receiverThread =
+      Threads.factory("strampáil-receiver", threadMode).newThread(receiver);
+    receiverThread.start();
+
+  } // End ‘BlockingTransport(String, int, TransportClient, int, int)’ Constructor
+
+// ------------------------------------- BlockingTransport Class ---------------
+
+  public void write(ByteBuffer[] frames, int offset, int length)
+    throws IOException
+  {
+
+    writeLock.lock();
+    try
+    {
+      int last = offset + length - 1;
+      while (frames[last].hasRemaining())
+        channel.write(frames, offset, length);
+    } // End try
+
+    finally
+    {
+      writeLock.unlock();
+    } // End finally
+
+    for (int index = offset; index < offset + length; index++)
+      BufferPool.release(frames[index]);
+
+  } // End ‘write(ByteBuffer[], int, int)’ Method
+
+// ------------------------------------- BlockingTransport Class ---------------
+
+  public boolean isOpen()
+  {
+    return channel.isOpen() && channel.isConnected();
+  } // End ‘isOpen()’ Method
+
+// ------------------------------------- BlockingTransport Class ---------------
+
+  public void close() throws IOException
+  {
+    channel.close();
+    receiver.setSuspended(false); // Lets it see the channel has gone.
+  } // End ‘close()’ Method
+
+// ------------------------------------- BlockingTransport Class ---------------
+
+  public synchronized void suspendReading()
+  {
+    if (holds++ == 0)
+      receiver.setSuspended(true);
+  } // End ‘suspendReading()’ Method
+
+// ------------------------------------- BlockingTransport Class ---------------
+
+  public synchronized void resumeReading()
+  {
+    if (holds > 0 && --holds == 0)
+      receiver.setSuspended(false);
+  } // End ‘resumeReading()’ Method
+
+// ------------------------------------- BlockingTransport Class ---------------
+
+  public synchronized boolean isReadingSuspended()
+  {
+    return holds > 0 || receiver.isStreamPaused();
+  } // End ‘isReadingSuspended()’ Method
+
+// ------------------------------------- BlockingTransport Class ---------------
+
+  public void awaitClosed()
+  {
+
+    if (Thread.currentThread() != receiverThread)
+      try
+      {
+        receiverThread.join();
+      } // End try
+
+      catch (InterruptedException ie)
+      {
+        Thread.currentThread().interrupt(); // Left for the caller to see.
+      } // End ‘InterruptedException’ catch
+
+  } // End ‘awaitClosed()’ Method
+
+// ------------------------------------- BlockingTransport Class ---------------
+
+} // End ‘BlockingTransport’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,307 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>BodyStream</code> is the body of one <code>MESSAGE</code> frame,
+ * as handed to a {@link StreamListener}. It reads from the connection
+ * itself, stopping where the frame does: after
+ * <code>content-length</code> bytes if the frame gives one, or at the
+ * <code>NUL</code> octet otherwise (a byte at a time, so as not to read into
+ * the next frame). Once the listener is done, the receiving thread skips
+ * whatever it left unread.
+ * <p>
+ * A body already gathered (by the non-blocking transport) is read from
+ * memory instead.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class BodyStream extends InputStream
+{
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  private static final int SKIP_SIZE = 8192;
+
+  private final InputStream source;
+  private final ByteBuffer gathered;
+  private final TransportClient client;
+  private final byte[] single;
+  private long remaining;
+  private boolean ended, closed, finished;
+  private IOException failure;
+  private volatile boolean reading;
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  /**
+   * @param source Where the body comes from, positioned at its start.
+   * @param length The <code>content-length</code> (<code>-1</code> to read
+   * up to the <code>NUL</code> octet).
+   * @param client Told whenever anything is heard from the server.
+   */
+  BodyStream(InputStream source, long length, TransportClient client)
+  {
+
+    this.source = source;
+    this.client = client;
+    gathered = null;
+    single = new byte[1];
+    remaining = length;
+    ended = false;
+    closed = false;
+    finished = false;
+    failure = null;
+    reading = false;
+
+  } // End ‘BodyStream(InputStream, long, TransportClient)’ Constructor
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  /**
+   * @param body A body gathered in full.
+   */
+  BodyStream(ByteBuffer body)
+  {
+
+    source = null;
+    client = null;
+    gathered = body;
+    single = new byte[1];
+    remaining = body.remaining();
+    ended = false;
+    closed = false;
+    finished = false;
+    failure = null;
+    reading = false;
+
+  } // End ‘BodyStream(ByteBuffer)’ Constructor
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  public int read() throws IOException
+  {
+    return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+  } // End ‘read()’ Method
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  public int read(byte[] into, int offset, int length) throws IOException
+  {
+
+    if (finished)
+      throw new IOException("Message body no longer available.");
+    else if (closed)
+      throw new IOException("Stream closed.");
+    else if (offset < 0 || length < 0 || length > into.length - offset)
+      throw new IndexOutOfBoundsException();
+    else if (length == 0)
+      return 0;
+
+    return take(into, offset, length);
+
+  } // End ‘read(byte[], int, int)’ Method
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  public int available() throws IOException
+  {
+
+    if (closed || finished || ended)
+      return 0;
+    else if (gathered != null)
+      return gathered.remaining();
+    else if (remaining < 0)
+      return 0; // Whatever is there may run on past the NUL.
+
+    return (int) Math.min(remaining, source.available());
+
+  } // End ‘available()’ Method
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  /**
+   * Stops the listener reading any more. The rest of the body is skipped
+   * once it returns.
+   */
+  public void close()
+  {
+    closed = true;
+  } // End ‘close()’ Method
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  /**
+   * Skips whatever the listener left unread, up to and including the
+   * <code>NUL</code> octet ending the frame, and stops the stream being
+   * read any further.
+   *
+   * @throws IOException If the connection failed part way through the body
+   * (whether then or while the listener was reading).
+   */
+  void finish() throws IOException
+  {
+
+    finished = true;
+
+    byte[] skipped = new byte[SKIP_SIZE];
+    while (take(skipped, 0, skipped.length) != -1);
+
+  } // End ‘finish()’ Method
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  /**
+   * @return Whether the listener has the stream but is not reading from it,
+   * in which case the server is no more to blame for being silent than if
+   * reading were suspended.
+   */
+  boolean isPaused()
+  {
+    return !reading;
+  } // End ‘isPaused()’ Method
+
+// -------------------------------------------- BodyStream Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  private int take(byte[] into, int offset, int length) throws IOException
+  {
+
+    if (failure != null)
+      throw failure;
+    else if (ended)
+      return -1;
+    else if (gathered != null)
+      return takeGathered(into, offset, length);
+
+    reading = true;
+    try
+    {
+      int count = remaining >= 0 ? takeCounted(into, offset, length) :
+        takeTerminated(into, offset, length);
+      if (count > 0)
+        client.notifyReceived();
+      return count;
+    } // End try
+
+    catch (IOException ioe)
+    {
+      failure = ioe;
+      throw ioe;
+    } // End ‘IOException’ catch
+
+    finally
+    {
+      reading = false;
+    } // End finally
+
+  } // End ‘take(byte[], int, int)’ Method
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  private int takeGathered(byte[] into, int offset, int length)
+  {
+
+    if (!gathered.hasRemaining())
+    {
+      ended = true;
+      return -1;
+    } // End if
+
+    int count = Math.min(length, gathered.remaining());
+    gathered.get(into, offset, count);
+
+    return count;
+
+  } // End ‘takeGathered(byte[], int, int)’ Method
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  /**
+   * Reads a body of known length, and then the <code>NUL</code> octet
+   * following it.
+   */
+  private int takeCounted(byte[] into, int offset, int length)
+    throws IOException
+  {
+
+    if (remaining == 0)
+    {
+      int symbol = source.read();
+      if (symbol > 0)
+      {
+        client.getLog().printWarning(
+          "content-length header mismatch (more data in frame)");
+        while (symbol > 0)
+          symbol = source.read();
+      } // End if
+
+      if (symbol == -1)
+        throw cutShort();
+
+      ended = true;
+      return -1;
+    } // End if
+
+    int count = source.read(into, offset, (int) Math.min(length, remaining));
+    if (count == -1)
+      throw cutShort();
+
+    remaining -= count;
+    return count;
+
+  } // End ‘takeCounted(byte[], int, int)’ Method
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  /**
+   * Reads a body up to the <code>NUL</code> octet ending it, going on
+   * past the first byte only for as long as more are to hand.
+   */
+  private int takeTerminated(byte[] into, int offset, int length)
+    throws IOException
+  {
+
+    int count = 0;
+
+    int symbol = source.read();
+    while (symbol > 0)
+    {
+      into[offset + count++] = (byte) symbol;
+      if (count == length || source.available() == 0)
+        return count;
+      symbol = source.read();
+    } // End while
+
+    if (symbol == -1)
+      throw cutShort();
+
+    ended = true;
+    return count == 0 ? -1 : count;
+
+  } // End ‘takeTerminated(byte[], int, int)’ Method
+
+// -------------------------------------------- BodyStream Class ---------------
+
+  private static EOFException cutShort()
+  {
+    return new EOFException(
+      "Connection closed part way through a message body.");
+  } // End ‘cutShort()’ Method
+
+// -------------------------------------------- BodyStream Class ---------------
+
+} // End ‘BodyStream’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,695 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.IOException;
+import java.net.SocketException;
+import java.nio.channels.ClosedChannelException;
+import java.util.Arrays;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>ClientReceiver</code> listens for STOMP frames from the server
+ * and deals with them appropriately. Frames are either parsed straight off
+ * the stream a byte at a time ({@link Constants#STREAMED_DECODER}) or read in
+ * bulk through a {@link FrameDecoder} ({@link Constants#BUFFERED_DECODER}).
+ * Either way, a <code>MESSAGE</code> frame for a subscription with a
+ * {@link StreamListener} is handed over once its headers are in, and the
+ * listener reads the body off the socket itself.
+ * <p>
+ * It runs on a thread of its own, which may be a virtual thread; waiting
+ * while reading is suspended is therefore done on a lock rather than a
+ * monitor, so as not to pin the thread's carrier.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Déardaoin, 21ú Aibreán 2016
+ */
+class ClientReceiver implements Runnable, Constants
+{
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /** The starting size of the streamed decoder's buffer, which grows to fit
+   * the largest frame it has to hold. */
+  private static final int SCRATCH_SIZE = 1024;
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  private InputStream receiver;
+  private boolean active;
+  private volatile boolean suspended;
+  private ReentrantLock gate;
+  private Condition resumed;
+  private TransportClient client;
+  private Log log;
+  private LatencyHistogram parseTimes;
+  private FrameDecoder decoder;
+  private byte[] scratch; // For the streamed decoder.
+  private int maxFrameSize, maxHeapBody;
+  private Predicate<Frame> selector;
+  private StreamListener streamListener; // For the frame being streamed.
+  private volatile BodyStream stream;
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  ClientReceiver(InputStream receiver, TransportClient client, int decoderMode)
+  {
+
+    this.receiver = receiver;
+    this.client = client;
+    log = client.getLog();
+    parseTimes = client.getParseTimes();
+    active = true;
+    suspended = false;
+    gate = new ReentrantLock();
+    resumed = gate.newCondition();
+    maxFrameSize = client.getMaxFrameSize();
+    maxHeapBody = client.getMaxHeapBody();
+    streamListener = null;
+    stream = null;
+
+    selector = new Predicate<Frame>()
+    {
+      public boolean test(Frame head)
+      {
+        streamListener = ClientReceiver.this.client.getStreamListener(head);
+        return streamListener != null;
+      } // End ‘test(Frame)’ Method
+    };
+
+    if (decoderMode == BUFFERED_DECODER)
+    {
+      decoder = new FrameDecoder(
+        FrameDecoder.DEFAULT_CAPACITY, maxFrameSize, maxHeapBody);
+      scratch = null;
+    } // End if
+    else
+    {
+      decoder = null;
+      scratch = new byte[SCRATCH_SIZE];
+    } // End else
+
+  } // End ‘ClientReceiver(InputStream, TransportClient, int)’ Constructor
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  public void run()
+  {
+
+    log.printDebug("Receiver activated!");
+
+    while (active)
+      if (decoder == null)
+        listen();
+      else
+        listenBuffered();
+
+    closeQuietly(); // However it ended, the server is heard no more.
+    client.notifyClosed();
+
+    log.printDebug("Receiver deactivated!");
+
+  } // End ‘run()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /**
+   * Holds back (or lets go of) the delivery of any further frames. While
+   * held back, nothing more is read from the socket either, so the server
+   * is slowed down by TCP flow control.
+   */
+  void setSuspended(boolean suspended)
+  {
+
+    gate.lock();
+    try
+    {
+      this.suspended = suspended;
+      resumed.signalAll();
+    } // End try
+
+    finally
+    {
+      gate.unlock();
+    } // End finally
+
+  } // End ‘setSuspended(boolean)’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /**
+   * @return Whether a {@link StreamListener} has a message body to read but
+   * is not reading it.
+   */
+  boolean isStreamPaused()
+  {
+
+    BodyStream current = stream;
+    return current != null && current.isPaused();
+
+  } // End ‘isStreamPaused()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  private void listen()
+  {
+
+    try
+    {
+      String command = parseCommand();
+      if (command == null)
+        return;
+
+      client.notifyReceived();
+      if (command.isEmpty())
+        return; // A heart-beat.
+
+      int headerLength = parseHeaders();
+      if (headerLength < 0)
+        return;
+
+      int length = HeaderIndex.contentLength(scratch, 0, headerLength);
+      Frame frame = streamHead(command, headerLength);
+      if (frame != null)
+        streamBody(frame, new BodyStream(receiver, length, client));
+      else
+      {
+        frame = parseBody(command, headerLength, length);
+        if (frame == null)
+          return;
+
+        log.printReceiveFrame(frame);
+        client.notifyFrame(frame);
+      } // End else
+
+      client.notifyDelivered(); // Frames are read one at a time here.
+      awaitResumed();
+
+    } // End try
+
+    catch (SocketException se)
+    {
+      remoteClosed();
+    } // End ‘SocketException’ catch
+
+    catch (EOFException eofe)
+    {
+      remoteClosed(); // Part way through a streamed body.
+    } // End ‘EOFException’ catch
+
+    catch (ClosedChannelException cce)
+    {
+      active = false; // Closed from this end.
+    } // End ‘ClosedChannelException’ catch
+
+    catch (IOException ioe)
+    {
+      log.printError("Unable to parse frame.");
+      active = false;
+    } // End ‘IOException’ catch
+
+  } // End ‘listen()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  private void listenBuffered()
+  {
+
+    try
+    {
+      decoder.streamWhere(client.hasStreamListeners() ? selector : null);
+
+      Frame frame = nextFrame();
+      while (frame != null && active)
+      {
+        if (decoder.isStreaming())
+          streamBody(frame, new BodyStream(
+            decoder.remainder(receiver), decoder.streamLength(), client));
+        else
+        {
+          log.printReceiveFrame(frame);
+          client.notifyFrame(frame);
+        } // End else
+
+        awaitResumed();
+        frame = nextFrame();
+      } // End while
+
+      client.notifyDelivered();
+
+      if (decoder.fill(receiver) == -1)
+        remoteClosed();
+      else
+        client.notifyReceived();
+
+    } // End try
+
+    catch (SocketException se)
+    {
+      remoteClosed();
+    } // End ‘SocketException’ catch
+
+    catch (EOFException eofe)
+    {
+      remoteClosed(); // Part way through a streamed body.
+    } // End ‘EOFException’ catch
+
+    catch (ClosedChannelException cce)
+    {
+      active = false; // Closed from this end.
+    } // End ‘ClosedChannelException’ catch
+
+    catch (IOException ioe)
+    {
+      log.printError("Unable to parse frame.");
+      active = false;
+    } // End ‘IOException’ catch
+
+  } // End ‘listenBuffered()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /**
+   * @return The next frame decoded from the buffer (<code>null</code> if
+   * the rest of it has yet to arrive), timed if that is being measured.
+   */
+  private Frame nextFrame()
+  {
+
+    if (parseTimes == null)
+      return decoder.next();
+
+    long start = System.nanoTime();
+    Frame frame = decoder.next();
+    if (frame != null)
+      parseTimes.record(System.nanoTime() - start);
+
+    return frame;
+
+  } // End ‘nextFrame()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /**
+   * Reads the command line of a frame into the scratch buffer.
+   *
+   * @return The command (empty for a heart-beat, <code>null</code> if the
+   * connection closed or the line was malformed).
+   */
+  private String parseCommand() throws IOException
+  {
+
+    int index = 0;
+
+    int symbol = receiver.read();
+    while (symbol != -1 && symbol != 0 && symbol != '\n')
+    {
+      ensureRoom(index);
+      scratch[index++] = (byte) symbol;
+      symbol = receiver.read();
+    } // End while
+
+    if (symbol == -1)
+      remoteClosed();
+    else if (symbol == 0)
+      malformedSTOMP();
+    else if (index == 0)
+      return "";
+    else
+      return FrameDecoder.resolveCommand(scratch, 0, index);
+
+    return null;
+
+  } // End ‘parseCommand()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /**
+   * Reads the header lines of a frame, still escaped, into the scratch
+   * buffer in place of the command. They are only picked apart once a
+   * header is asked for.
+   *
+   * @return The length of the header block, each line ending in
+   * <code>'\n'</code> (<code>-1</code> if the connection closed or the
+   * headers were malformed).
+   */
+  private int parseHeaders() throws IOException
+  {
+
+    int index = 0, lineStart = 0;
+
+    int symbol = receiver.read();
+    while (symbol != -1 && symbol != 0 &&
+      !(symbol == '\n' && index == lineStart))
+    {
+      ensureRoom(index);
+      scratch[index++] = (byte) symbol;
+      if (symbol == '\n')
+        lineStart = index;
+      symbol = receiver.read();
+    } // End while
+
+    if (symbol == -1)
+      remoteClosed();
+    else if (symbol == 0)
+      malformedSTOMP();
+    else
+      return index;
+
+    return -1;
+
+  } // End ‘parseHeaders()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /**
+   * Puts together the head of a <code>MESSAGE</code> frame, with the header
+   * block held in the scratch buffer and an empty body, if it is for a
+   * subscription whose bodies are streamed.
+   *
+   * @return The head (<code>null</code> if the body is to be read as
+   * usual).
+   */
+  private Frame streamHead(String command, int headerLength)
+  {
+
+    if (!command.equals("MESSAGE") || !client.hasStreamListeners())
+      return null;
+
+    Frame head = new Frame(command, Arrays.copyOf(scratch, headerLength), 0,
+      headerLength, headerLength, 0);
+
+    return selector.test(head) ? head : null;
+
+  } // End ‘streamHead(String, int)’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /**
+   * Hands the head of a <code>MESSAGE</code> frame to its stream listener,
+   * along with the body to read, and then skips whatever of the body the
+   * listener left unread.
+   *
+   * @throws IOException If the body could not be read to its end.
+   */
+  private void streamBody(Frame head, BodyStream body) throws IOException
+  {
+
+    log.printReceiveFrame(head);
+    client.notifyDelivered(); // Nothing waiting should wait on the body.
+
+    stream = body;
+    try
+    {
+      streamListener.messageReceived(head, body);
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printError("Stream listener failed: " + ioe);
+    } // End ‘IOException’ catch
+
+    catch (RuntimeException re)
+    {
+      log.printError("Stream listener failed: " + re);
+    } // End ‘RuntimeException’ catch
+
+    finally
+    {
+      stream = null;
+    } // End finally
+
+    body.finish();
+
+  } // End ‘streamBody(Frame, BodyStream)’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /**
+   * Reads the body of a frame, and puts it together with the header block
+   * held in the scratch buffer. A body larger than the heap limit is
+   * spooled to a memory-mapped file instead.
+   *
+   * @param length The <code>content-length</code> (<code>-1</code> to read
+   * up to the <code>NUL</code> octet).
+   * @return The frame (<code>null</code> if the connection closed first).
+   */
+  private Frame parseBody(String command, int headerLength, int length)
+    throws IOException
+  {
+
+    if (length > maxHeapBody)
+      return spoolBody(command, headerLength, 0, length);
+
+    byte[] frameBytes;
+    int bodyLength;
+
+    if (length >= 1)
+    {
+      if ((long) headerLength + length > maxFrameSize)
+        throw tooLarge();
+
+      frameBytes = new byte[headerLength + length];
+      System.arraycopy(scratch, 0, frameBytes, 0, headerLength);
+
+      for (int index = headerLength, count; index < frameBytes.length;
+        index += count)
+      {
+        count = receiver.read(frameBytes, index, frameBytes.length - index);
+        if (count == -1)
+        {
+          remoteClosed();
+          return null;
+        } // End if
+      } // End for
+
+      if (receiver.read() != 0)
+        log.printWarning(
+          "content-length header mismatch (more data in frame)");
+      bodyLength = length;
+    } // End if
+    else
+    {
+      int index = headerLength;
+
+      int symbol = receiver.read();
+      while (symbol != -1 && symbol != 0)
+      {
+        ensureRoom(index);
+        scratch[index++] = (byte) symbol;
+        if (index - headerLength > maxHeapBody)
+          return spoolBody(command, headerLength, index - headerLength, -1);
+        symbol = receiver.read();
+      } // End while
+
+      if (symbol == -1)
+      {
+        remoteClosed();
+        return null;
+      } // End if
+
+      frameBytes = Arrays.copyOf(scratch, index);
+      bodyLength = index - headerLength;
+    } // End else
+
+    return new Frame(
+      command, frameBytes, 0, headerLength, headerLength, bodyLength);
+
+  } // End ‘parseBody(String, int, int)’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /**
+   * Reads the rest of a body too large for the heap into a
+   * {@link BodySpool}, a scratch buffer at a time.
+   *
+   * @param buffered How much of the body is already in the scratch buffer,
+   * after the headers.
+   * @param length The <code>content-length</code> (<code>-1</code> to read
+   * up to the <code>NUL</code> octet).
+   * @return The frame (<code>null</code> if the connection closed first).
+   */
+  private Frame spoolBody(String command, int headerLength, int buffered,
+    int length) throws IOException
+  {
+
+    long bodyLimit = (long) maxFrameSize - headerLength;
+    if (length > bodyLimit)
+      throw tooLarge();
+
+    byte[] headerBlock = Arrays.copyOf(scratch, headerLength);
+    BodySpool spool = new BodySpool();
+
+    try
+    {
+      spool.write(scratch, headerLength, buffered);
+
+      if (length >= 0)
+      {
+        for (long remaining = length, count; remaining > 0;
+          remaining -= count)
+        {
+          count = receiver.read(
+            scratch, 0, (int) Math.min(remaining, scratch.length));
+          if (count == -1)
+          {
+            remoteClosed();
+            return null;
+          } // End if
+          spool.write(scratch, 0, (int) count);
+        } // End for
+
+        if (receiver.read() != 0)
+          log.printWarning(
+            "content-length header mismatch (more data in frame)");
+      } // End if
+      else
+      {
+        int index = 0;
+
+        int symbol = receiver.read();
+        while (symbol != -1 && symbol != 0)
+        {
+          scratch[index++] = (byte) symbol;
+          if (index == scratch.length)
+          {
+            spool.write(scratch, 0, index);
+            index = 0;
+            if (spool.size() > bodyLimit)
+              throw tooLarge();
+          } // End if
+          symbol = receiver.read();
+        } // End while
+
+        if (symbol == -1)
+        {
+          remoteClosed();
+          return null;
+        } // End if
+
+        spool.write(scratch, 0, index);
+        if (spool.size() > bodyLimit)
+          throw tooLarge();
+      } // End else
+
+      return new Frame(command, headerBlock, spool.finish());
+    } // End try
+
+    finally
+    {
+      spool.discard();
+    } // End finally
+
+  } // End ‘spoolBody(String, int, int, int)’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /**
+   * Makes sure the scratch buffer has room at the given index, doubling it
+   * as need be.
+   *
+   * @throws IOException If that would make the frame larger than the
+   * maximum frame size.
+   */
+  private void ensureRoom(int index) throws IOException
+  {
+
+    if (index < scratch.length)
+      return;
+    else if (index >= maxFrameSize)
+      throw tooLarge();
+
+    scratch = Arrays.copyOf(scratch,
+      (int) Math.min(2L * scratch.length, maxFrameSize));
+
+  } // End ‘ensureRoom(int)’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  private IOException tooLarge()
+  {
+
+    String problem =
+      "Frame exceeds the maximum frame size of " + maxFrameSize + " bytes.";
+    log.printError(problem);
+
+    return new IOException(problem);
+
+  } // End ‘tooLarge()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  private void awaitResumed()
+  {
+
+    if (!suspended)
+      return;
+
+    client.notifyDelivered(); // Nothing else is coming for a while.
+
+    gate.lock();
+    try
+    {
+      while (suspended)
+        resumed.await();
+    } // End try
+
+    catch (InterruptedException ie)
+    {
+      active = false;
+    } // End ‘InterruptedException’ catch
+
+    finally
+    {
+      gate.unlock();
+    } // End finally
+
+  } // End ‘awaitResumed()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  private void remoteClosed()
+  {
+    log.printWarning("Connection closed from remote end.");
+    active = false;
+  } // End ‘remoteClosed()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  /**
+   * Closes the socket (if it is not closed already), as the transport
+   * cannot be used without anything listening to it.
+   */
+  private void closeQuietly()
+  {
+
+    try
+    {
+      receiver.close(); // Closes the socket with it.
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printError("I/O error when closing connection.");
+    } // End ‘IOException’ catch
+
+  } // End ‘closeQuietly()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+  private void malformedSTOMP()
+  {
+    log.printError("Malformed STOMP frame received.");
+  } // End ‘malformedSTOMP()’ Method
+
+// ---------------------------------------- ClientReceiver Class ---------------
+
+} // End ‘ClientReceiver’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,233 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * An <code>EventLoop</code> is a single thread driving a {@link Selector}
+ * on behalf of any number of {@link NioTransport}s. A small, fixed pool of
+ * loops is shared by every client in the JVM, so hundreds of connections
+ * need only a handful of threads.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+class EventLoop extends Thread
+{
+
+// --------------------------------------------- EventLoop Class ---------------
+
+  /** The number of loops in the shared pool. */
+  static final int POOL_SIZE =
+    Math.min(4, Runtime.getRuntime().availableProcessors());
+
+  private static EventLoop[] pool = null;
+
+// --------------------------------------------- EventLoop Class ---------------
+
+  private Selector selector;
+  private ConcurrentLinkedQueue<Runnable> tasks;
+  private AtomicInteger connections;
+
+// --------------------------------------------- EventLoop Class ---------------
+
+  private EventLoop(int index) throws IOException
+  {
+
+    super("strampáil-loop-" + index);
+    setDaemon(true);
+
+    selector = Selector.open();
+    tasks = new ConcurrentLinkedQueue<Runnable>();
+    connections = new AtomicInteger();
+
+  } // End ‘EventLoop(int)’ Constructor
+
+// --------------------------------------------- EventLoop Class ---------------
+
+  /**
+   * Picks the least busy loop in the shared pool, starting the pool first if
+   * need be.
+   *
+   * @return The loop a new connection should be registered with.
+   * @throws IOException If a selector cannot be opened.
+   */
+  static synchronized EventLoop assign() throws IOException
+  {
+
+    if (pool == null)
+    {
+      EventLoop[] loops = new EventLoop[POOL_SIZE];
+      for (int index = 0; index < loops.length; index++)
+        loops[index] = new EventLoop(index);
+      for (EventLoop loop : loops)
+        loop.start();
+      pool = loops;
+    } // End if
+
+    EventLoop quietest = pool[0];
+    for (EventLoop loop : pool)
+      if (loop.connections.get() < quietest.connections.get())
+        quietest = loop;
+
+    return quietest;
+
+  } // End ‘assign()’ Method
+
+// --------------------------------------------- EventLoop Class ---------------
+
+  /**
+   * Runs a task on this loop's thread, at the start of its next pass.
+   *
+   * @param task The task to be run.
+   */
+  void execute(Runnable task)
+  {
+    tasks.add(task);
+    selector.wakeup();
+  } // End ‘execute(Runnable)’ Method
+
+// --------------------------------------------- EventLoop Class ---------------
+
+  /**
+   * Registers a transport's channel with this loop for reading.
+   *
+   * @param transport The transport to register.
+   */
+  void register(final NioTransport transport)
+  {
+
+    connections.incrementAndGet();
+    execute(new Runnable()
+    {
+      public void run()
+      {
+        if (!transport.channel().isOpen())
+          return; // Closed before it ever got here.
+
+        try
+        {
+          transport.registered(transport.channel().register(
+            selector, SelectionKey.OP_READ, transport));
+        } // End try
+
+        catch (IOException ioe)
+        {
+          Printer.printError("Unable to register connection with " +
+            getName() + ".");
+          transport.closeQuietly();
+        } // End ‘IOException’ catch
+      } // End ‘run()’ Method
+    });
+
+  } // End ‘register(NioTransport)’ Method
+
+// --------------------------------------------- EventLoop Class ---------------
+
+  /**
+   * Notes that a transport registered with this loop has closed.
+   */
+  void deregister()
+  {
+    connections.decrementAndGet();
+  } // End ‘deregister()’ Method
+
+// --------------------------------------------- EventLoop Class ---------------
+
+  /**
+   * @return Whether the calling thread is this loop.
+   */
+  boolean inLoop()
+  {
+    return Thread.currentThread() == this;
+  } // End ‘inLoop()’ Method
+
+// --------------------------------------------- EventLoop Class ---------------
+
+  public void run()
+  {
+
+    Printer.printDebug(getName() + " activated!");
+
+    while (true)
+    {
+      try
+      {
+        selector.select();
+      } // End try
+
+      catch (IOException ioe)
+      {
+        Printer.printError(getName() + " unable to select: " + ioe);
+        continue;
+      } // End ‘IOException’ catch
+
+      Runnable task = tasks.poll();
+      while (task != null)
+      {
+        try
+        {
+          task.run();
+        } // End try
+
+        catch (RuntimeException re)
+        {
+          Printer.printError("Task failed on " + getName() + ": " + re);
+        } // End ‘RuntimeException’ catch
+
+        task = tasks.poll();
+      } // End while
+
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while (keys.hasNext())
+      {
+        SelectionKey key = keys.next();
+        keys.remove();
+        process(key);
+      } // End while
+    } // End while
+
+  } // End ‘run()’ Method
+
+// --------------------------------------------- EventLoop Class ---------------
+
+  private void process(SelectionKey key)
+  {
+
+    NioTransport transport = (NioTransport) key.attachment();
+
+    try
+    {
+      if (key.isValid() && key.isReadable())
+        transport.handleRead();
+      if (key.isValid() && key.isWritable())
+        transport.handleWrite();
+    } // End try
+
+    catch (CancelledKeyException cke)
+    {
+      // Closed while being processed; nothing left to do.
+    } // End ‘CancelledKeyException’ catch
+
+    catch (RuntimeException re)
+    {
+      Printer.printError("Unexpected failure on " + getName() + ": " + re);
+      transport.closeQuietly();
+    } // End ‘RuntimeException’ catch
+
+  } // End ‘process(SelectionKey)’ Method
+
+// --------------------------------------------- EventLoop Class ---------------
+
+} // End ‘EventLoop’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
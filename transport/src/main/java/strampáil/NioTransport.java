@@ -0,0 +1,393 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>NioTransport</code> talks to the server over a non-blocking
+ * {@link SocketChannel} multiplexed onto one of the shared
+ * {@link EventLoop}s, in place of a {@link ClientReceiver} thread per
+ * connection. Incoming frames are decoded and delivered on the loop thread.
+ * <p>
+ * Writes go straight to the channel from the calling thread, as a single
+ * gathering write per batch; anything the socket cannot take at once is
+ * queued and finished off by the loop.
+ * <p>
+ * While reading is suspended the channel is simply dropped from the read
+ * set, so the loop thread is never held up; frames already decoded wait in
+ * the decoder until reading resumes.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+class NioTransport implements Transport
+{
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  private SocketChannel channel;
+  private TransportClient client;
+  private Log log;
+  private LatencyHistogram parseTimes;
+  private EventLoop loop;
+  private FrameDecoder decoder;
+  private ArrayDeque<ByteBuffer> pending;
+  private volatile SelectionKey key;
+  private CountDownLatch closed;
+  private AtomicBoolean closing;
+  private boolean writing; // Guarded by ‘pending’.
+  private volatile boolean readingSuspended; // Set holding ‘pending’.
+  private int holds; // Guarded by ‘pending’.
+  private Runnable resumeTask;
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  NioTransport(String address, int port, TransportClient client)
+    throws IOException
+  {
+
+    this.client = client;
+    log = client.getLog();
+    parseTimes = client.getParseTimes();
+    decoder = new FrameDecoder(FrameDecoder.DEFAULT_CAPACITY,
+      client.getMaxFrameSize(), client.getMaxHeapBody());
+    pending = new ArrayDeque<ByteBuffer>();
+    key = null;
+    closed = new CountDownLatch(1);
+    closing = new AtomicBoolean(false);
+    writing = false;
+    readingSuspended = false;
+    holds = 0;
+    resumeTask = new Runnable()
+    {
+      public void run()
+      {
+        resumed();
+      } // End ‘run()’ Method
+    };
+
+    channel = SocketChannel.open(
+      new InetSocketAddress(InetAddress.getByName(address), port));
+    channel.configureBlocking(false);
+    channel.socket().setTcpNoDelay(true); // Batching is done elsewhere.
+
+    loop = EventLoop.assign();
+    loop.register(this);
+
+  } // End ‘NioTransport(String, int, TransportClient)’ Constructor
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  public void write(ByteBuffer[] frames, int offset, int length)
+    throws IOException
+  {
+
+    synchronized (pending)
+    {
+      boolean idle = pending.isEmpty();
+      if (idle)
+        channel.write(frames, offset, length);
+
+      for (int index = offset; index < offset + length; index++)
+        if (frames[index].hasRemaining())
+          pending.add(frames[index]);
+        else
+          BufferPool.release(frames[index]);
+
+      if (idle && !pending.isEmpty())
+      {
+        writing = true;
+        updateInterest();
+      } // End if
+    } // End synchronized
+
+  } // End ‘write(ByteBuffer[], int, int)’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  public boolean isOpen()
+  {
+    return channel.isOpen();
+  } // End ‘isOpen()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  public void close() throws IOException
+  {
+
+    if (!closing.compareAndSet(false, true))
+      return;
+
+    channel.close(); // Also cancels the selection key.
+    loop.deregister();
+    closed.countDown();
+    client.notifyClosed();
+
+  } // End ‘close()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  public void awaitClosed()
+  {
+
+    if (!loop.inLoop())
+      try
+      {
+        closed.await();
+      } // End try
+
+      catch (InterruptedException ie)
+      {
+        Thread.currentThread().interrupt(); // Left for the caller to see.
+      } // End ‘InterruptedException’ catch
+
+  } // End ‘awaitClosed()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  public void suspendReading()
+  {
+
+    synchronized (pending)
+    {
+      holds++;
+      readingSuspended = true;
+      updateInterest();
+    } // End synchronized
+
+  } // End ‘suspendReading()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  public void resumeReading()
+  {
+
+    synchronized (pending)
+    {
+      if (holds > 0 && --holds == 0)
+        loop.execute(resumeTask);
+    } // End synchronized
+
+  } // End ‘resumeReading()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  public boolean isReadingSuspended()
+  {
+    return readingSuspended;
+  } // End ‘isReadingSuspended()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+// ======================================== Event Loop Callbacks ===============
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  SocketChannel channel()
+  {
+    return channel;
+  } // End ‘channel()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  void registered(SelectionKey key)
+  {
+
+    this.key = key;
+    synchronized (pending)
+    {
+      writing = !pending.isEmpty();
+      updateInterest();
+    } // End synchronized
+
+  } // End ‘registered(SelectionKey)’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  void handleRead()
+  {
+
+    try
+    {
+      if (readingSuspended)
+        return; // Readiness noticed before reading was suspended.
+
+      int count = decoder.fill(channel);
+      if (count > 0)
+        client.notifyReceived();
+
+      deliver(count == -1); // Nothing more is coming, so hand it all over.
+
+      if (count == -1)
+      {
+        log.printWarning("Connection closed from remote end.");
+        closeQuietly();
+      } // End if
+
+    } // End try
+
+    catch (IOException ioe)
+    {
+      if (channel.isOpen())
+        log.printError("Unable to parse frame.");
+      closeQuietly();
+    } // End ‘IOException’ catch
+
+  } // End ‘handleRead()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  void handleWrite()
+  {
+
+    try
+    {
+      synchronized (pending)
+      {
+        while (!pending.isEmpty())
+        {
+          ByteBuffer frame = pending.peek();
+          channel.write(frame);
+          if (frame.hasRemaining())
+            return;
+          BufferPool.release(pending.poll());
+        } // End while
+
+        writing = false;
+        updateInterest();
+      } // End synchronized
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printError("Unable to write queued frames.");
+      closeQuietly();
+    } // End ‘IOException’ catch
+
+  } // End ‘handleWrite()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  void closeQuietly()
+  {
+
+    try
+    {
+      close();
+    } // End try
+
+    catch (IOException ioe)
+    {
+      log.printError("I/O error when closing connection.");
+    } // End ‘IOException’ catch
+
+  } // End ‘closeQuietly()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  /**
+   * Delivers the frames decoded so far, stopping early if reading is
+   * suspended along the way (unless told to deliver them all regardless).
+   */
+  private void deliver(boolean all)
+  {
+
+    Frame frame = nextFrame();
+    while (frame != null)
+    {
+      log.printReceiveFrame(frame);
+      client.notifyFrame(frame);
+      if (!all && readingSuspended)
+        break;
+      frame = nextFrame();
+    } // End while
+
+    client.notifyDelivered();
+
+  } // End ‘deliver(boolean)’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  /**
+   * @return The next frame decoded (<code>null</code> if the rest of it has
+   * yet to arrive), timed if that is being measured.
+   */
+  private Frame nextFrame()
+  {
+
+    if (parseTimes == null)
+      return decoder.next();
+
+    long start = System.nanoTime();
+    Frame frame = decoder.next();
+    if (frame != null)
+      parseTimes.record(System.nanoTime() - start);
+
+    return frame;
+
+  } // End ‘nextFrame()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  private void resumed()
+  {
+
+    synchronized (pending)
+    {
+      if (holds > 0)
+        return; // Suspended again before the loop got round to this.
+      readingSuspended = false;
+    } // End synchronized
+
+    deliver(false);
+
+    synchronized (pending)
+    {
+      if (!readingSuspended)
+        updateInterest();
+    } // End synchronized
+
+  } // End ‘resumed()’ Method
+
+
+// ------------------------------------------ NioTransport Class ---------------
+
+  /**
+   * Brings the channel's interest set into line with whether it is reading
+   * and whether it has writes queued. Must be called holding ‘pending’.
+   */
+  private void updateInterest()
+  {
+
+    SelectionKey registration = key;
+    if (registration == null || !registration.isValid())
+      return; // Picked up in registered() once the loop gets to it.
+
+    registration.interestOps(
+      (readingSuspended ? 0 : SelectionKey.OP_READ) |
+      (writing ? SelectionKey.OP_WRITE : 0));
+    if (!loop.inLoop())
+      registration.selector().wakeup();
+
+  } // End ‘updateInterest()’ Method
+
+// ------------------------------------------ NioTransport Class ---------------
+
+} // End ‘NioTransport’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,72 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>Scheduler</code> runs short, delayed housekeeping tasks (such as
+ * flushing a part-filled write batch) for every client in the JVM on a
+ * single shared daemon thread.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class Scheduler
+{
+
+// --------------------------------------------- Scheduler Class ---------------
+
+  private static final ScheduledThreadPoolExecutor timer = createTimer();
+
+// --------------------------------------------- Scheduler Class ---------------
+
+  private Scheduler(){}
+
+// --------------------------------------------- Scheduler Class ---------------
+
+  /**
+   * Runs a task once, after a delay. Tasks must be quick, as they all share
+   * one thread, and so must never write to a blocking socket themselves
+   * (see {@link WritePipeline#execute(Runnable)}).
+   *
+   * @param task The task to be run.
+   * @param delay The delay in milliseconds.
+   * @return A handle with which the task can be cancelled.
+   */
+  static ScheduledFuture<?> schedule(Runnable task, long delay)
+  {
+    return timer.schedule(task, delay, TimeUnit.MILLISECONDS);
+  } // End ‘schedule(Runnable, long)’ Method
+
+// --------------------------------------------- Scheduler Class ---------------
+
+  private static ScheduledThreadPoolExecutor createTimer()
+  {
+
+    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+      new ThreadFactory()
+      {
+        public Thread newThread(Runnable task)
+        {
+          Thread thread = new Thread(task, "strampáil-timer");
+          thread.setDaemon(true);
+          return thread;
+        } // End ‘newThread(Runnable)’ Method
+      });
+    executor.setRemoveOnCancelPolicy(true);
+
+    return executor;
+
+  } // End ‘createTimer()’ Method
+
+// --------------------------------------------- Scheduler Class ---------------
+
+} // End ‘Scheduler’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
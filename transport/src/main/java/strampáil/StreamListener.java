@@ -0,0 +1,54 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.InputStream;
+import java.io.IOException;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>StreamListener</code> is handed the <code>MESSAGE</code> frames
+ * of a single subscription as soon as their headers have arrived, and reads
+ * each body for itself while it is still coming off the socket. No body is
+ * ever held in full, however large, so this suits messages too big to be
+ * kept in memory.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @see ClientInterface#subscribeStreamed(String, String, int, StreamListener,
+ * boolean)
+ * @see MessageListener
+ */
+public interface StreamListener
+{
+
+// ------------------------------------ StreamListener Interface ---------------
+
+  /**
+   * This method is triggered whenever a <code>MESSAGE</code> starts to
+   * arrive for the subscription this listener was registered with. It is
+   * called on the receiving thread, and nothing else on the same connection
+   * is delivered until it returns; whatever of the body it has not read by
+   * then is skipped, and the stream may no longer be read.
+   * <p>
+   * With the blocking transport, the stream reads straight off the socket
+   * (wrap it with {@link java.nio.channels.Channels#newChannel(InputStream)}
+   * for a channel). With the non-blocking transport the body is gathered
+   * first, as set out by
+   * {@link ClientInterface#setFrameLimits(int, int)}, and the listener is
+   * called as any other would be.
+   *
+   * @param frame The <code>MESSAGE</code> frame, with its headers but an
+   * empty body (unless the body has been gathered already).
+   * @param body The body, which ends where the frame does.
+   * @throws IOException If the body cannot be read; the rest of the body is
+   * still skipped, and the connection dropped only if that fails too.
+   */
+  void messageReceived(Frame frame, InputStream body) throws IOException;
+
+// ------------------------------------ StreamListener Interface ---------------
+
+} // End ‘StreamListener’ Interface
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
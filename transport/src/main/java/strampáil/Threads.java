@@ -0,0 +1,103 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.util.concurrent.ThreadFactory;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>Threads</code> makes the threads that receive and deliver messages:
+ * either daemon platform threads, or virtual threads where the JVM has them
+ * (Java 21 onwards). Virtual threads are looked up reflectively, so that
+ * the library still runs on older JVMs.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+final class Threads implements Constants
+{
+
+// ----------------------------------------------- Threads Class ---------------
+
+  private static final boolean virtualSupported =
+    virtualFactory("strampáil-probe") != null;
+
+// ----------------------------------------------- Threads Class ---------------
+
+  private Threads(){}
+
+// ----------------------------------------------- Threads Class ---------------
+
+  /**
+   * @return Whether this JVM can run virtual threads.
+   */
+  static boolean virtualSupported()
+  {
+    return virtualSupported;
+  } // End ‘virtualSupported()’ Method
+
+// ----------------------------------------------- Threads Class ---------------
+
+  /**
+   * Makes threads of the given kind. Virtual threads are asked for only
+   * once {@link #virtualSupported()} has been checked.
+   *
+   * @param name The name given to each thread.
+   * @param threadMode One of {@link Constants#PLATFORM_THREADS} or
+   * {@link Constants#VIRTUAL_THREADS}.
+   * @return The factory.
+   */
+  static ThreadFactory factory(final String name, int threadMode)
+  {
+
+    if (threadMode == VIRTUAL_THREADS && virtualSupported)
+      return virtualFactory(name);
+
+    return new ThreadFactory()
+    {
+      public Thread newThread(Runnable task)
+      {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+      } // End ‘newThread(Runnable)’ Method
+    };
+
+  } // End ‘factory(String, int)’ Method
+
+// ----------------------------------------------- Threads Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ----------------------------------------------- Threads Class ---------------
+
+  /**
+   * Equivalent to <code>Thread.ofVirtual().name(name).factory()</code>.
+   *
+   * @return The factory (<code>null</code> if there are no virtual threads).
+   */
+  private static ThreadFactory virtualFactory(String name)
+  {
+
+    try
+    {
+      Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder =
+        builderType.getMethod("name", String.class).invoke(builder, name);
+      return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    } // End try
+
+    catch (ReflectiveOperationException roe)
+    {
+      return null; // Not there, or a preview not switched on.
+    } // End ‘ReflectiveOperationException’ catch
+
+  } // End ‘virtualFactory(String)’ Method
+
+// ----------------------------------------------- Threads Class ---------------
+
+} // End ‘Threads’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
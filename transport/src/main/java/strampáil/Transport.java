@@ -0,0 +1,94 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>Transport</code> carries STOMP frames between a
+ * {@link TransportClient} and the server. Outgoing frames are handed to
+ * {@link #write(ByteBuffer[], int, int)}, usually in batches by a
+ * {@link WritePipeline}; incoming frames are passed to
+ * {@link TransportClient#notifyFrame(Frame)} as they arrive.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @see BlockingTransport
+ * @see NioTransport
+ */
+interface Transport
+{
+
+// ----------------------------------------- Transport Interface ---------------
+
+  /**
+   * Writes a batch of complete, encoded frames to the server, with as few
+   * system calls as the transport can manage. Batches written from several
+   * threads are never interleaved.
+   *
+   * @param frames The encoded frames.
+   * @param offset The index of the first frame in the batch.
+   * @param length The number of frames in the batch.
+   * @throws IOException If the frames cannot be written.
+   */
+  void write(ByteBuffer[] frames, int offset, int length) throws IOException;
+
+// ----------------------------------------- Transport Interface ---------------
+
+  /**
+   * @return Whether the underlying TCP connection is still open.
+   */
+  boolean isOpen();
+
+// ----------------------------------------- Transport Interface ---------------
+
+  /**
+   * Closes the underlying TCP connection.
+   *
+   * @throws IOException If the connection cannot be closed cleanly.
+   */
+  void close() throws IOException;
+
+// ----------------------------------------- Transport Interface ---------------
+
+  /**
+   * Stops delivering incoming frames, and stops reading from the server so
+   * that TCP flow control holds the server back. May be called from any
+   * thread; if called while a frame is being delivered, that frame is
+   * finished first. Suspensions may overlap: reading carries on only once
+   * each has been matched by a call to {@link #resumeReading()}.
+   */
+  void suspendReading();
+
+// ----------------------------------------- Transport Interface ---------------
+
+  /**
+   * @return Whether reading is currently suspended.
+   */
+  boolean isReadingSuspended();
+
+// ----------------------------------------- Transport Interface ---------------
+
+  /**
+   * Carries on delivering and reading frames after
+   * {@link #suspendReading()}. May be called from any thread.
+   */
+  void resumeReading();
+
+// ----------------------------------------- Transport Interface ---------------
+
+  /**
+   * Waits until incoming frames are no longer being delivered. Returns at
+   * once if called from the thread that delivers them, or early if the
+   * caller is interrupted (its interrupt status being set again).
+   */
+  void awaitClosed();
+
+// ----------------------------------------- Transport Interface ---------------
+
+} // End ‘Transport’ Interface
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,99 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * A <code>TransportClient</code> is what a {@link Transport} reports to:
+ * the frames it receives, and how the connection is faring. It stands
+ * between the transports and {@link ClientInterface}, so that the
+ * transports can be built without the client. Its methods are left
+ * package-private, so as not to become part of the client's public face.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+abstract class TransportClient
+{
+
+// --------------------------------------- TransportClient Class ---------------
+
+  /**
+   * Registers receipt of a frame from the server.
+   */
+  abstract void notifyFrame(Frame frame);
+
+// --------------------------------------- TransportClient Class ---------------
+
+  /**
+   * Registers that data (a frame, part of one or a heart-beat) has just
+   * arrived from the server.
+   */
+  abstract void notifyReceived();
+
+// --------------------------------------- TransportClient Class ---------------
+
+  /**
+   * Registers that every frame decoded so far has been delivered.
+   */
+  abstract void notifyDelivered();
+
+// --------------------------------------- TransportClient Class ---------------
+
+  /**
+   * Registers that the connection has closed, from either end.
+   */
+  abstract void notifyClosed();
+
+// --------------------------------------- TransportClient Class ---------------
+
+  /**
+   * @return The size of the largest frame accepted, in bytes.
+   */
+  abstract int getMaxFrameSize();
+
+// --------------------------------------- TransportClient Class ---------------
+
+  /**
+   * @return The size of the largest body kept on the heap, in bytes.
+   */
+  abstract int getMaxHeapBody();
+
+// --------------------------------------- TransportClient Class ---------------
+
+  /**
+   * @return Whether any subscription has a {@link StreamListener}.
+   */
+  abstract boolean hasStreamListeners();
+
+// --------------------------------------- TransportClient Class ---------------
+
+  /**
+   * @param message The head of a <code>MESSAGE</code> frame.
+   * @return The stream listener of the subscription the message is for
+   * (<code>null</code> if it has none).
+   */
+  abstract StreamListener getStreamListener(Frame message);
+
+// --------------------------------------- TransportClient Class ---------------
+
+  /**
+   * @return What to print through on this client's behalf.
+   */
+  abstract Log getLog();
+
+// --------------------------------------- TransportClient Class ---------------
+
+  /**
+   * @return Where to count how long each frame took to decode
+   * (<code>null</code> if that is not being measured).
+   */
+  abstract LatencyHistogram getParseTimes();
+
+// --------------------------------------- TransportClient Class ---------------
+
+} // End ‘TransportClient’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
@@ -0,0 +1,373 @@
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+package strampáil;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+
+/**
+ * <code>WritePipeline</code> queues encoded frames on their way to a
+ * {@link Transport} and hands them over in batches, so that a busy publisher
+ * gets many frames into each system call. A batch is flushed once it holds
+ * at least <code>batchSize</code> bytes, once the oldest frame in it has
+ * waited <code>linger</code> milliseconds, or when {@link #flush()} is
+ * called. Frames always leave in the order they were queued.
+ * <p>
+ * A linger of zero turns batching off: every frame is written at once.
+ * <p>
+ * Writes started by a timer (lingering batches, heart-beats, held back
+ * acknowledgements) must not block the thread all the timers share. Where
+ * the transport's writes can block, should the server stop reading, they
+ * are handed to writer threads shared by every connection in the JVM; see
+ * {@link #execute(Runnable)}.
+ *
+ * @author Mark David Pokorny
+ * @version Dé Sathairn, 17ú Deireadh Fómhair 2026
+ * @since Dé Sathairn, 17ú Deireadh Fómhair 2026
+ */
+class WritePipeline implements Constants
+{
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  private static final Executor platformWriters = Executors.newCachedThreadPool(
+    Threads.factory("strampáil-writer", PLATFORM_THREADS));
+  private static final Executor virtualWriters = createVirtualWriters();
+
+  private Transport transport;
+  private int batchSize, queuedFrames, queuedBytes;
+  private long linger;
+  private volatile long lastWrite;
+  private ByteBuffer[] queue;
+  private ScheduledFuture<?> lingerFlush;
+  private Runnable lingerTask, flushTask;
+  private Executor writers;
+  private ConcurrentLinkedQueue<Runnable> timed;
+  private AtomicInteger timedCount;
+  private Runnable drainTask;
+  private volatile boolean closed;
+  private ReentrantLock lock; // Held across writes, so not a monitor.
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  /**
+   * @param writers Runs timed writes, for transports whose writes can block
+   * (<code>null</code> if they cannot); see {@link #sharedWriters(int)}.
+   */
+  WritePipeline(Transport transport, int batchSize, long linger,
+    Executor writers)
+  {
+
+    this.transport = transport;
+    this.batchSize = batchSize;
+    this.linger = linger;
+    this.writers = writers;
+    timed = new ConcurrentLinkedQueue<Runnable>();
+    timedCount = new AtomicInteger(0);
+    closed = false;
+
+    queue = new ByteBuffer[16];
+    queuedFrames = 0;
+    queuedBytes = 0;
+    lingerFlush = null;
+    lastWrite = System.nanoTime();
+    lock = new ReentrantLock();
+    lingerTask = new Runnable()
+    {
+      public void run()
+      {
+        execute(flushTask);
+      } // End ‘run()’ Method
+    };
+    flushTask = new Runnable()
+    {
+      public void run()
+      {
+        lingered();
+      } // End ‘run()’ Method
+    };
+    drainTask = new Runnable()
+    {
+      public void run()
+      {
+        drainTimed();
+      } // End ‘run()’ Method
+    };
+
+  } // End ‘WritePipeline(Transport, int, long, Executor)’ Constructor
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  /**
+   * Queues a frame for writing.
+   *
+   * @param frame The encoded frame.
+   * @param urgent Whether the frame (and everything queued before it) must
+   * go out now, e.g. because the caller is about to wait for a reply to it.
+   * @throws IOException If a flush was triggered and failed.
+   */
+  void write(ByteBuffer frame, boolean urgent) throws IOException
+  {
+
+    lock.lock();
+    try
+    {
+      if (queuedFrames == queue.length)
+        queue = Arrays.copyOf(queue, queue.length * 2);
+
+      queue[queuedFrames++] = frame;
+      queuedBytes += frame.remaining();
+
+      if (urgent || linger <= 0 || queuedBytes >= batchSize)
+        flush();
+      else if (lingerFlush == null)
+        lingerFlush = Scheduler.schedule(lingerTask, linger);
+    } // End try
+
+    finally
+    {
+      lock.unlock();
+    } // End finally
+
+  } // End ‘write(ByteBuffer, boolean)’ Method
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  /**
+   * Writes a frame at once (after everything queued before it), unless
+   * another thread is part way through queueing or writing. For frames that
+   * are only wanted if nothing else is going out, such as heart-beats.
+   *
+   * @param frame The encoded frame.
+   * @return Whether the frame was written. If not, it was dropped.
+   * @throws IOException If the frame was written and failed.
+   */
+  boolean tryWrite(ByteBuffer frame) throws IOException
+  {
+
+    if (!lock.tryLock())
+      return false;
+
+    try
+    {
+      write(frame, true);
+    } // End try
+
+    finally
+    {
+      lock.unlock();
+    } // End finally
+
+    return true;
+
+  } // End ‘tryWrite(ByteBuffer)’ Method
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  /**
+   * Writes out everything queued so far as a single batch.
+   *
+   * @throws IOException If the batch cannot be written.
+   */
+  void flush() throws IOException
+  {
+
+    lock.lock();
+    try
+    {
+      if (lingerFlush != null)
+      {
+        lingerFlush.cancel(false);
+        lingerFlush = null;
+      } // End if
+
+      if (queuedFrames > 0)
+        writeQueued();
+    } // End try
+
+    finally
+    {
+      lock.unlock();
+    } // End finally
+
+  } // End ‘flush()’ Method
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  /**
+   * Runs a task that writes to the server on behalf of a timer: at once if
+   * the transport's writes cannot block, or else on the shared writers, so
+   * that a server that has stopped reading holds up no more than its own
+   * connection. A connection's tasks are queued, and a single drain task
+   * at a time runs them, so they run in the order given.
+   *
+   * @param task The task to be run.
+   */
+  void execute(Runnable task)
+  {
+
+    if (writers == null)
+    {
+      task.run();
+      return;
+    } // End if
+
+    if (closed)
+      return;
+
+    timed.add(task);
+    if (timedCount.getAndIncrement() == 0)
+      writers.execute(drainTask);
+
+  } // End ‘execute(Runnable)’ Method
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  /**
+   * Drops any timed writes still to be run, once the connection is closed.
+   * This may be called more than once.
+   */
+  void close()
+  {
+    closed = true;
+  } // End ‘close()’ Method
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  /**
+   * @param threadMode One of {@link Constants#PLATFORM_THREADS} or
+   * {@link Constants#VIRTUAL_THREADS}.
+   * @return Writers shared by every connection in the JVM. Threads are made
+   * only while there are writes to run (and kept for a minute after), so
+   * idle connections cost none, and one stuck on a server that has stopped
+   * reading ties up only the one thread.
+   */
+  static Executor sharedWriters(int threadMode)
+  {
+    return threadMode == VIRTUAL_THREADS ? virtualWriters : platformWriters;
+  } // End ‘sharedWriters(int)’ Method
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  /**
+   * @return When a batch was last written, as a {@link System#nanoTime()}
+   * reading.
+   */
+  long getLastWrite()
+  {
+    return lastWrite;
+  } // End ‘getLastWrite()’ Method
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+// ====================================== Private Helper Methods ===============
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  /**
+   * Must be called holding the lock.
+   */
+  private void writeQueued() throws IOException
+  {
+
+    int count = queuedFrames;
+    queuedFrames = 0;
+    queuedBytes = 0;
+
+    try
+    {
+      transport.write(queue, 0, count);
+      lastWrite = System.nanoTime();
+    } // End try
+
+    finally
+    {
+      Arrays.fill(queue, 0, count, null);
+    } // End finally
+
+  } // End ‘writeQueued()’ Method
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  private void drainTimed()
+  {
+
+    int count = 0;
+    Runnable task = timed.poll();
+    while (task != null)
+    {
+      count++;
+      if (!closed)
+        try
+        {
+          task.run();
+        } // End try
+
+        catch (RuntimeException re)
+        {
+          Printer.printError("Timed write failed: " + re);
+        } // End ‘RuntimeException’ catch
+
+      task = timed.poll();
+    } // End while
+
+    if (timedCount.addAndGet(-count) > 0)
+      writers.execute(drainTask); // More arrived meanwhile.
+
+  } // End ‘drainTimed()’ Method
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  private void lingered()
+  {
+
+    try
+    {
+      flush();
+    } // End try
+
+    catch (IOException ioe)
+    {
+      Printer.printError("Unable to flush queued frames.");
+    } // End ‘IOException’ catch
+
+  } // End ‘lingered()’ Method
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+  /**
+   * @return An executor starting a virtual thread for every task (the
+   * platform writers if there are no virtual threads).
+   */
+  private static Executor createVirtualWriters()
+  {
+
+    if (!Threads.virtualSupported())
+      return platformWriters;
+
+    final ThreadFactory factory =
+      Threads.factory("strampáil-writer", VIRTUAL_THREADS);
+    return new Executor()
+    {
+      public void execute(Runnable task)
+      {
+        factory.newThread(task).start();
+      } // End ‘execute(Runnable)’ Method
+    };
+
+  } // End ‘createVirtualWriters()’ Method
+
+// ----------------------------------------- WritePipeline Class ---------------
+
+} // End ‘WritePipeline’ Class
+
+// +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+